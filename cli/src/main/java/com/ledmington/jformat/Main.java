@@ -1,5 +1,7 @@
 package com.ledmington.jformat;
 
+import com.ledmington.javaparser.lexer.IdentifierTable;
+import com.ledmington.javaparser.lexer.SourceReader;
 import com.ledmington.javaparser.parser.JavaParser;
 import com.ledmington.parser.Parser;
 
@@ -25,10 +27,13 @@ public final class Main {
 
 		System.out.printf("Collected %,d files\n", sources.size());
 
+		// shared by all files, so that common names are stored only once
+		final IdentifierTable identifiers = new IdentifierTable();
+
 		for (final Path p : sources) {
 			System.out.printf("Scanning '%s'\n", p);
 			try {
-				System.out.println(JavaParser.parse(Files.readString(p)));
+				System.out.println(JavaParser.parse(SourceReader.read(p), identifiers));
 			} catch (final IOException e) {
 				throw new RuntimeException(e);
 			}
@@ -0,0 +1,59 @@
+package com.ledmington.javaparser.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ledmington.javaparser.lexer.JavaLexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Timeout(time = 5)
+public class Lexing {
+
+	// a license header, a javadoc-heavy class and deeply indented code
+	private static final char[] code = String.join(
+			"\n",
+			"/*",
+			" * Licensed under the Apache License, Version 2.0 (the \"License\");",
+			" * you may not use this file except in compliance with the License.",
+			" * You may obtain a copy of the License at",
+			" *",
+			" *     http://www.apache.org/licenses/LICENSE-2.0",
+			" *",
+			" * Unless required by applicable law or agreed to in writing, software",
+			" * distributed under the License is distributed on an \"AS IS\" BASIS,",
+			" * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.",
+			" */",
+			"package org.testing;",
+			"import java.util.List;",
+			"/**",
+			" * A class with a lot of documentation.",
+			" */",
+			"public class A {",
+			"    // a line comment",
+			"    private static final String s = \"a string literal, long enough to matter\";",
+			"    /** Documentation of the method. */",
+			"    public int m(final int x) {",
+			"        return 1 + x * 0x1F;",
+			"    }",
+			"}")
+			.repeat(20)
+			.toCharArray();
+
+	@Benchmark
+	public void lex(final Blackhole bh) {
+		bh.consume(JavaLexer.lex(code));
+	}
+}
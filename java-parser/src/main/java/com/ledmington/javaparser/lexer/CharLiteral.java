@@ -1,12 +1,20 @@
 package com.ledmington.javaparser.lexer;
 
-import java.util.Objects;
+public final class CharLiteral extends QuotedLiteral {
 
-public record CharLiteral(String content) implements JavaToken {
-	public CharLiteral {
-		Objects.requireNonNull(content);
+	public CharLiteral(final String content) {
+		super('\'', content);
 		if (content.isEmpty() || content.length() > 6) {
 			throw new IllegalArgumentException(String.format("'%s' is not a char literal.", content));
 		}
 	}
+
+	// the content is [start; end) of source, which must have quotes around it
+	CharLiteral(final char[] source, final int start, final int end) {
+		super('\'', source, start, end);
+		if (start == end || end - start > 6) {
+			throw new IllegalArgumentException(
+					String.format("'%s' is not a char literal.", new String(source, start, end - start)));
+		}
+	}
 }
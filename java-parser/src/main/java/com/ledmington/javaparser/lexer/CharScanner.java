@@ -0,0 +1,89 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Bulk scanning primitives used by the lexer to skip over whitespace, comments and literal bodies.
+ *
+ * <p>The searches test a whole block of chars with non-short-circuit operators, so that the hot loop takes one
+ * branch per block instead of one per char. Runs of identical chars, like indentation, are skipped with
+ * {@link Arrays#mismatch(char[], int, int, char[], int, int)}, which the JIT compiles to SIMD instructions.
+ */
+final class CharScanner {
+
+	private static final int BLOCK = 8;
+	private static final int RUN = 64;
+	private static final char[] SPACES = new char[RUN];
+
+	static {
+		Arrays.fill(SPACES, ' ');
+	}
+
+	private CharScanner() {}
+
+	/** Returns the index of the first occurrence of c in a[from; to), or -1. */
+	static int indexOf(final char[] a, final int from, final int to, final char c) {
+		int i = from;
+		for (; i + BLOCK <= to; i += BLOCK) {
+			if ((a[i] == c) | (a[i + 1] == c) | (a[i + 2] == c) | (a[i + 3] == c) | (a[i + 4] == c)
+					| (a[i + 5] == c) | (a[i + 6] == c) | (a[i + 7] == c)) {
+				break;
+			}
+		}
+		for (; i < to; i++) {
+			if (a[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Returns the index of the first "*&#47;" in a[from; to), or -1. */
+	static int indexOfBlockCommentEnd(final char[] a, final int from, final int to) {
+		int i = from;
+		while (true) {
+			i = indexOf(a, i, to, '*');
+			if (i < 0 || i + 1 >= to) {
+				return -1;
+			}
+			if (a[i + 1] == '/') {
+				return i;
+			}
+			i++;
+		}
+	}
+
+	private static boolean isBlank(final char c) {
+		return c == ' ' || (c >= '\t' && c <= '\r') || (c >= '\u001c' && c <= '\u001f')
+				|| (c >= 128 && Character.isWhitespace(c));
+	}
+
+	/** Returns the index of the first char in a[from; to) which is not whitespace, or to. */
+	static int skipBlanks(final char[] a, final int from, final int to) {
+		int i = from;
+		while (i < to) {
+			final char c = a[i];
+			if (c == ' ' && i + 1 < to && a[i + 1] == ' ') {
+				i = skipSpaces(a, i, to);
+			} else if (isBlank(c)) {
+				i++;
+			} else {
+				break;
+			}
+		}
+		return i;
+	}
+
+	private static int skipSpaces(final char[] a, final int from, final int to) {
+		int i = from;
+		while (i < to) {
+			final int length = Math.min(RUN, to - i);
+			final int m = Arrays.mismatch(a, i, i + length, SPACES, 0, length);
+			if (m >= 0) {
+				return i + m;
+			}
+			i += length;
+		}
+		return i;
+	}
+}
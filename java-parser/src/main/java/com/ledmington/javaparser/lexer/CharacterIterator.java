@@ -6,8 +6,7 @@ public final class CharacterIterator {
 
 	private final String str;
 	private int index = 0;
-	private int line = 1;
-	private int column = 1;
+	private LineIndex lines = null;
 
 	public CharacterIterator(final String str) {
 		this.str = Objects.requireNonNull(str);
@@ -36,34 +35,34 @@ public final class CharacterIterator {
 		return hasNext(1);
 	}
 
-	private void moveOne() {
-		if (hasNext() && current() == '\n') {
-			line++;
-			column = 1;
-		} else {
-			column++;
-		}
-		index++;
-	}
-
 	public void move(final int step) {
 		if (step < 1) {
 			throw new AssertionError();
 		}
-		for (int i = 0; i < step; i++) {
-			moveOne();
-		}
+		index += step;
 	}
 
 	public void move() {
 		move(1);
 	}
 
+	public int getIndex() {
+		return index;
+	}
+
+	// Lines and columns are needed only to report errors, so they are computed on demand.
+	private LineIndex lines() {
+		if (lines == null) {
+			lines = new LineIndex(str);
+		}
+		return lines;
+	}
+
 	public int getLine() {
-		return line;
+		return lines().line(index);
 	}
 
 	public int getColumn() {
-		return column;
+		return lines().column(index);
 	}
 }
@@ -0,0 +1,127 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Objects;
+
+/**
+ * A thread-safe symbol table which interns identifiers, so that every occurrence of the same name shares a single
+ * {@link JavaID} (and a single String) across all the files lexed with the same table.
+ *
+ * <p>Lookups are keyed directly on a span of the source, so no temporary String is built for names which are
+ * already known. The table is split in segments, each guarded by its own lock: reads do not lock at all, while
+ * insertions lock only the segment they fall in.
+ */
+public final class IdentifierTable {
+
+	private static final int SEGMENT_BITS = 5;
+	private static final int SEGMENTS = 1 << SEGMENT_BITS;
+	private static final int INITIAL_SEGMENT_CAPACITY = 64;
+
+	private static final class Entry {
+		private final JavaID id;
+		private final int hash;
+		private final Entry next;
+
+		private Entry(final JavaID id, final int hash, final Entry next) {
+			this.id = id;
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+
+	private static final class Segment {
+		// Entries are immutable, so a reader racing with an insertion sees either the old or the new chain,
+		// never a partially built one. A miss is always re-checked under the lock.
+		private volatile Entry[] table = new Entry[INITIAL_SEGMENT_CAPACITY];
+		private int count = 0;
+
+		private synchronized JavaID insert(final char[] code, final int start, final int end, final int hash) {
+			Entry[] t = table;
+			final JavaID existing = find(t, code, start, end, hash);
+			if (existing != null) {
+				return existing;
+			}
+			if (count >= t.length - (t.length >>> 2)) {
+				t = resize(t);
+			}
+			final JavaID id = new JavaID(new String(code, start, end - start));
+			final int idx = (hash >>> SEGMENT_BITS) & (t.length - 1);
+			t[idx] = new Entry(id, hash, t[idx]);
+			count++;
+			table = t;
+			return id;
+		}
+
+		private static Entry[] resize(final Entry[] old) {
+			final Entry[] t = new Entry[old.length << 1];
+			for (Entry e : old) {
+				for (; e != null; e = e.next) {
+					final int idx = (e.hash >>> SEGMENT_BITS) & (t.length - 1);
+					t[idx] = new Entry(e.id, e.hash, t[idx]);
+				}
+			}
+			return t;
+		}
+	}
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+
+	public IdentifierTable() {
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment();
+		}
+	}
+
+	private static int hash(final char[] code, final int start, final int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + code[i];
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static JavaID find(final Entry[] t, final char[] code, final int start, final int end, final int hash) {
+		for (Entry e = t[(hash >>> SEGMENT_BITS) & (t.length - 1)]; e != null; e = e.next) {
+			if (e.hash == hash && sameName(e.id.id(), code, start, end)) {
+				return e.id;
+			}
+		}
+		return null;
+	}
+
+	private static boolean sameName(final String name, final char[] code, final int start, final int end) {
+		if (name.length() != end - start) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) != code[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Returns the canonical identifier spelled as code[start; end). */
+	public JavaID intern(final char[] code, final int start, final int end) {
+		Objects.checkFromToIndex(start, end, code.length);
+		final int hash = hash(code, start, end);
+		final Segment s = segments[hash & (SEGMENTS - 1)];
+		final JavaID id = find(s.table, code, start, end, hash);
+		return id != null ? id : s.insert(code, start, end, hash);
+	}
+
+	public JavaID intern(final String name) {
+		final char[] code = name.toCharArray();
+		return intern(code, 0, code.length);
+	}
+
+	/** Returns how many distinct identifiers this table holds. */
+	public int size() {
+		int n = 0;
+		for (final Segment s : segments) {
+			synchronized (s) {
+				n += s.count;
+			}
+		}
+		return n;
+	}
+}
@@ -3,37 +3,175 @@ package com.ledmington.javaparser.lexer;
 import java.math.BigInteger;
 import java.util.Objects;
 
+/**
+ * An integer literal. Values which fit in a long, which are almost all of them, are kept as a primitive, while a
+ * BigInteger is used only for the others.
+ *
+ * <p>A literal read by the lexer is a view over its spelling in the source, and its value is computed only the
+ * first time it is needed. Two literals are equal when their values are, regardless of how they are spelled.
+ */
 public final class IntegerLiteral implements JavaToken {
 
-	private final BigInteger value;
+	// the spelling is [start; end) of source when source is not null
+	private final char[] source;
+	private final int start;
+	private final int end;
 	private final boolean declaredAsLong;
+	private long value;
+	private BigInteger bigValue;
+	// written after value and bigValue, so that seeing it true means they are set
+	private volatile boolean parsed;
+
+	public IntegerLiteral(final long value, final boolean declaredAsLong) {
+		this.source = null;
+		this.start = 0;
+		this.end = 0;
+		this.declaredAsLong = declaredAsLong;
+		this.value = value;
+		this.bigValue = null;
+		this.parsed = true;
+	}
+
+	public IntegerLiteral(final long value) {
+		this(value, false);
+	}
 
 	public IntegerLiteral(final BigInteger value, final boolean declaredAsLong) {
-		this.value = Objects.requireNonNull(value);
+		Objects.requireNonNull(value);
+		final boolean fits = value.bitLength() < Long.SIZE;
+		this.source = null;
+		this.start = 0;
+		this.end = 0;
 		this.declaredAsLong = declaredAsLong;
+		this.value = fits ? value.longValue() : 0L;
+		this.bigValue = fits ? null : value;
+		this.parsed = true;
 	}
 
 	public IntegerLiteral(final BigInteger value) {
 		this(value, false);
 	}
 
-	public BigInteger value() {
+	// the spelling must have already been checked by the lexer
+	IntegerLiteral(final char[] source, final int start, final int end) {
+		Objects.checkFromToIndex(start, end, source.length);
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		this.declaredAsLong = source[end - 1] == 'L' || source[end - 1] == 'l';
+		this.parsed = false;
+	}
+
+	/*
+	 * Computes the value from the spelling. The digits are accumulated in a long, and only literals which do not fit
+	 * in it are parsed again as a BigInteger.
+	 */
+	private void parse() {
+		final int last = declaredAsLong ? end - 1 : end;
+		final int radix;
+		final int first;
+		if (last - start >= 2 && source[start] == '0' && (source[start + 1] == 'x' || source[start + 1] == 'X')) {
+			radix = 16;
+			first = start + 2;
+		} else if (last - start >= 2
+				&& source[start] == '0'
+				&& (source[start + 1] == 'b' || source[start + 1] == 'B')) {
+			radix = 2;
+			first = start + 2;
+		} else if (last - start >= 2 && source[start] == '0') {
+			radix = 8;
+			first = start + 1;
+		} else {
+			radix = 10;
+			first = start;
+		}
+
+		long x = 0L;
+		for (int i = first; i < last; i++) {
+			if (source[i] == '_') {
+				continue;
+			}
+			final int digit = Character.digit(source[i], radix);
+			if (digit < 0) {
+				throw new InvalidLiteralException(spelling());
+			}
+			if (x > (Long.MAX_VALUE - digit) / radix) {
+				bigValue = parseBigInteger(first, last, radix);
+				parsed = true;
+				return;
+			}
+			x = x * radix + digit;
+		}
+
+		value = x;
+		parsed = true;
+	}
+
+	private BigInteger parseBigInteger(final int first, final int last, final int radix) {
+		final StringBuilder sb = new StringBuilder(last - first);
+		for (int i = first; i < last; i++) {
+			if (source[i] != '_') {
+				sb.append(source[i]);
+			}
+		}
+		return new BigInteger(sb.toString(), radix);
+	}
+
+	private void ensureParsed() {
+		if (!parsed) {
+			parse();
+		}
+	}
+
+	public boolean fitsInLong() {
+		ensureParsed();
+		return bigValue == null;
+	}
+
+	/**
+	 * Returns the value of this literal as a long.
+	 *
+	 * @throws ArithmeticException if the value does not fit in a long
+	 */
+	public long longValue() {
+		ensureParsed();
+		if (bigValue != null) {
+			throw new ArithmeticException(String.format("%s does not fit in a long.", bigValue));
+		}
 		return value;
 	}
 
+	public BigInteger value() {
+		ensureParsed();
+		return bigValue == null ? BigInteger.valueOf(value) : bigValue;
+	}
+
 	public boolean declaredAsLong() {
 		return declaredAsLong;
 	}
 
+	/**
+	 * Returns the literal as it was written, with its radix prefix, underscores and suffix. A literal built from a
+	 * value is spelled in base 10.
+	 */
+	public String spelling() {
+		if (source != null) {
+			return new String(source, start, end - start);
+		}
+		return (bigValue == null ? Long.toString(value) : bigValue.toString()) + (declaredAsLong ? "L" : "");
+	}
+
 	@Override
 	public String toString() {
-		return "IntegerLiteral(" + value + (declaredAsLong ? "L" : "") + ")";
+		ensureParsed();
+		return "IntegerLiteral(" + (bigValue == null ? value : bigValue) + (declaredAsLong ? "L" : "") + ")";
 	}
 
 	@Override
 	public int hashCode() {
+		ensureParsed();
 		int h = 17;
-		h = 31 * h + value.hashCode();
+		h = 31 * h + (bigValue == null ? Long.hashCode(value) : bigValue.hashCode());
 		h = 31 * h + (declaredAsLong ? 1 : 0);
 		return h;
 	}
@@ -50,6 +188,10 @@ public final class IntegerLiteral implements JavaToken {
 			return false;
 		}
 		final IntegerLiteral il = (IntegerLiteral) other;
-		return this.value.equals(il.value) && this.declaredAsLong == il.declaredAsLong;
+		this.ensureParsed();
+		il.ensureParsed();
+		return this.value == il.value
+				&& Objects.equals(this.bigValue, il.bigValue)
+				&& this.declaredAsLong == il.declaredAsLong;
 	}
 }
@@ -2,12 +2,29 @@ package com.ledmington.javaparser.lexer;
 
 import java.io.Serial;
 
-public final class InvalidLiteralException extends RuntimeException {
+public final class InvalidLiteralException extends SyntaxException {
 
 	@Serial
 	private static final long serialVersionUID = 4007465801267470648L;
 
+	private final String invalidLiteral;
+
 	public InvalidLiteralException(final String invalidLiteral) {
-		super(String.format("'%s' is an invalid literal.", invalidLiteral));
+		super(null, -1, -1);
+		this.invalidLiteral = invalidLiteral;
+	}
+
+	public InvalidLiteralException(final String invalidLiteral, final char[] source, final int start, final int end) {
+		super(source, start, end);
+		this.invalidLiteral = invalidLiteral;
+	}
+
+	public String literal() {
+		return invalidLiteral;
+	}
+
+	@Override
+	protected String describe() {
+		return String.format("'%s' is an invalid literal", invalidLiteral);
 	}
 }
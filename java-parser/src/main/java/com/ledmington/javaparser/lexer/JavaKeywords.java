@@ -1,60 +1,112 @@
 package com.ledmington.javaparser.lexer;
 
+import java.util.Objects;
+
 public enum JavaKeywords implements JavaToken {
-	PUBLIC,
-	PRIVATE,
-	PROTECTED,
-	STATIC,
-	FINAL,
-	VOLATILE,
-	SYNCHRONIZED,
-	STRICTFP,
-	TRANSIENT,
-	ABSTRACT,
-	NATIVE,
-	SEALED,
-	CLASS,
-	ENUM,
-	RECORD,
-	INTERFACE,
-	PERMITS,
-	EXTENDS,
-	IMPLEMENTS,
-	IMPORT,
-	PACKAGE,
-	BYTE,
-	CHAR,
-	SHORT,
-	INT,
-	FLOAT,
-	LONG,
-	DOUBLE,
-	VOID,
-	NULL,
-	THROWS,
-	IF,
-	ELSE,
-	DO,
-	WHILE,
-	FOR,
-	TRY,
-	CATCH,
-	FINALLY,
-	THROW,
-	GOTO,
-	RETURN,
-	SWITCH,
-	CASE,
-	BREAK,
-	DEFAULT,
-	CONTINUE,
-	ASSERT,
-	NEW,
-	INSTANCEOF,
-	THIS,
-	SUPER,
-	CONST,
-	BOOLEAN,
-	TRUE,
-	FALSE
+	PUBLIC("public"),
+	PRIVATE("private"),
+	PROTECTED("protected"),
+	STATIC("static"),
+	FINAL("final"),
+	VOLATILE("volatile"),
+	SYNCHRONIZED("synchronized"),
+	STRICTFP("strictfp"),
+	TRANSIENT("transient"),
+	ABSTRACT("abstract"),
+	NATIVE("native"),
+	SEALED("sealed"),
+	CLASS("class"),
+	ENUM("enum"),
+	RECORD("record"),
+	INTERFACE("interface"),
+	PERMITS("permits"),
+	EXTENDS("extends"),
+	IMPLEMENTS("implements"),
+	IMPORT("import"),
+	PACKAGE("package"),
+	BYTE("byte"),
+	CHAR("char"),
+	SHORT("short"),
+	INT("int"),
+	FLOAT("float"),
+	LONG("long"),
+	DOUBLE("double"),
+	VOID("void"),
+	NULL("null"),
+	THROWS("throws"),
+	IF("if"),
+	ELSE("else"),
+	DO("do"),
+	WHILE("while"),
+	FOR("for"),
+	TRY("try"),
+	CATCH("catch"),
+	FINALLY("finally"),
+	THROW("throw"),
+	GOTO("goto"),
+	RETURN("return"),
+	SWITCH("switch"),
+	CASE("case"),
+	BREAK("break"),
+	DEFAULT("default"),
+	CONTINUE("continue"),
+	ASSERT("assert"),
+	NEW("new"),
+	INSTANCEOF("instanceof"),
+	THIS("this"),
+	SUPER("super"),
+	CONST("const"),
+	BOOLEAN("boolean"),
+	TRUE("true"),
+	FALSE("false");
+
+	private static final int HASH_BITS = 7;
+	private static final JavaKeywords[] TABLE = new JavaKeywords[1 << HASH_BITS];
+	private static final int MAX_LENGTH;
+
+	static {
+		int maxLength = 0;
+		for (final JavaKeywords k : values()) {
+			final String s = k.repr;
+			maxLength = Math.max(maxLength, s.length());
+			final int h = hash(s.charAt(0), s.charAt(1), s.charAt(s.length() - 1), s.length());
+			if (TABLE[h] != null) {
+				throw new AssertionError(String.format("Keywords '%s' and '%s' have the same hash.", TABLE[h], k));
+			}
+			TABLE[h] = k;
+		}
+		MAX_LENGTH = maxLength;
+	}
+
+	private final String repr;
+
+	JavaKeywords(final String repr) {
+		this.repr = Objects.requireNonNull(repr);
+	}
+
+	/*
+	 * A perfect hash over the keywords: the multiplier has been chosen so that no two keywords fall in the same
+	 * slot, which the static initializer double-checks.
+	 */
+	private static int hash(final char first, final char second, final char last, final int length) {
+		return ((length << 24) ^ (first << 16) ^ (second << 8) ^ last) * 0x4a2b6131 >>> (32 - HASH_BITS);
+	}
+
+	/** Returns the keyword spelled exactly as code[start; end), or null if that word is not a keyword. */
+	static JavaKeywords fromSpan(final char[] code, final int start, final int end) {
+		final int length = end - start;
+		if (length < 2 || length > MAX_LENGTH) {
+			return null;
+		}
+		final JavaKeywords k = TABLE[hash(code[start], code[start + 1], code[end - 1], length)];
+		if (k == null || k.repr.length() != length) {
+			return null;
+		}
+		for (int i = 0; i < length; i++) {
+			if (k.repr.charAt(i) != code[start + i]) {
+				return null;
+			}
+		}
+		return k;
+	}
 }
@@ -1,427 +1,511 @@
 package com.ledmington.javaparser.lexer;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 public final class JavaLexer {
 
-	private JavaLexer() {
+	static final int EOF = -1;
+
+	// chars per chunk when lexing in parallel: sources shorter than two chunks are lexed sequentially
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	// the source given by the caller, and the chars actually lexed: they are the same array unless the source
+	// has Unicode escapes, in which case code is its translation and offsets maps each index back to the source
+	private final char[] source;
+	private final char[] code;
+	private final int[] offsets;
+	private final int end;
+	private int pos;
+	private int tokenStart;
+	// where whitespace and comments are recorded, if anywhere
+	private TokenBuffer trivia = null;
+	// where errors go instead of being thrown, when lexing does not stop at them
+	private Consumer<SyntaxException> errors = null;
+
+	private JavaLexer(final char[] source, final int start, final int end) {
+		this(source, start, end, true);
+	}
+
+	// Callers which already know that there are no Unicode escapes in the range can skip looking for them.
+	private JavaLexer(final char[] source, final int start, final int end, final boolean findEscapes) {
+		this.source = Objects.requireNonNull(source);
+		if (start < 0 || end > source.length || start > end) {
+			throw new IllegalArgumentException(
+					String.format("Invalid range [%,d; %,d) for a source of %,d chars.", start, end, source.length));
+		}
+		final int firstEscape = findEscapes ? UnicodeEscapes.find(source, start, end) : -1;
+		if (firstEscape < 0) {
+			this.code = source;
+			this.offsets = null;
+			this.pos = start;
+			this.end = end;
+		} else {
+			final UnicodeEscapes.Translation t = UnicodeEscapes.translate(source, start, end, firstEscape);
+			this.code = t.chars();
+			this.offsets = t.offsets();
+			this.pos = 0;
+			this.end = t.length();
+		}
 	}
 
 	public static List<JavaToken> tokenize(final String code) {
-		final CharacterIterator it = new CharacterIterator(Objects.requireNonNull(code));
+		return tokenize(Objects.requireNonNull(code).toCharArray());
+	}
+
+	/**
+	 * Tokenizes the given source without copying it: every character is read directly from the array, and
+	 * identifiers and literals are built from their span in one go.
+	 */
+	public static List<JavaToken> tokenize(final char[] code) {
+		final JavaLexer lexer = new JavaLexer(code, 0, code.length);
 		final List<JavaToken> tokens = new ArrayList<>();
-		while (it.hasNext()) {
-			final Optional<JavaToken> t = tokenize(it);
-			if (t.isPresent()) {
-				tokens.add(t.orElseThrow());
-				// it.move();
-			} else {
-				break;
-			}
+		int kind;
+		while ((kind = lexer.nextToken()) != EOF) {
+			tokens.add(TokenBuffer.token(
+					code, null, kind, lexer.tokenStart(), lexer.position(), lexer.hasEscapes()));
 		}
 		return tokens;
 	}
 
-	private static Optional<JavaToken> tokenize(final CharacterIterator it) {
-		if (!it.hasNext()) {
-			return Optional.empty();
+	public static TokenBuffer lex(final String code) {
+		return lex(Objects.requireNonNull(code).toCharArray());
+	}
+
+	public static TokenBuffer lex(final char[] code) {
+		return lex(code, null);
+	}
+
+	/**
+	 * Tokenizes the given source into a {@link TokenBuffer}, without building any {@link JavaToken}. If an
+	 * {@link IdentifierTable} is given, identifiers read from the buffer are interned in it.
+	 *
+	 * <p>All spans refer to the given source even when it has Unicode escapes: they are lexed on a translated copy,
+	 * and the spans are moved back all at once at the end.
+	 */
+	public static TokenBuffer lex(final char[] code, final IdentifierTable identifiers) {
+		Objects.requireNonNull(code);
+		// a rough guess of one token every 6 characters, to avoid most resizes
+		return lexInto(code, new TokenBuffer(code, identifiers, code.length / 6));
+	}
+
+	/**
+	 * Tokenizes the given source into a buffer returned by an earlier call, reusing its arrays. Whatever the buffer
+	 * held before is lost, so it must not be in use anymore.
+	 */
+	public static TokenBuffer lex(final char[] code, final IdentifierTable identifiers, final TokenBuffer reused) {
+		Objects.requireNonNull(reused).reset(Objects.requireNonNull(code), identifiers);
+		return lexInto(code, reused);
+	}
+
+	private static TokenBuffer lexInto(final char[] code, final TokenBuffer buffer) {
+		final JavaLexer lexer = new JavaLexer(code, 0, code.length);
+		lexer.trivia = buffer;
+		int kind;
+		while ((kind = lexer.nextToken()) != EOF) {
+			buffer.add(kind, lexer.tokenStart, lexer.pos);
 		}
+		if (lexer.hasEscapes()) {
+			buffer.translateSpans(lexer.offsets);
+		}
+		return buffer;
+	}
 
-		skipBlanksAndComments(it);
+	public static TokenBuffer lexParallel(final char[] code, final IdentifierTable identifiers) {
+		return lexParallel(code, identifiers, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Tokenizes the given source like {@link #lex(char[], IdentifierTable)}, with the same result, but splits a
+	 * large one into chunks which are lexed in parallel on the given pool.
+	 *
+	 * <p>Each chunk is lexed speculatively from the first line start inside it, guessing that it is not in the
+	 * middle of a comment or a literal. The chunks are then merged in order by lexing from where the previous one
+	 * really ended: as soon as a token starts where a speculated one did, the rest of the chunk is taken as it is,
+	 * since the lexer would produce the very same tokens from there on. A wrong guess only costs lexing that chunk
+	 * again while merging. Sources with Unicode escapes are always lexed sequentially.
+	 */
+	public static TokenBuffer lexParallel(
+			final char[] code, final IdentifierTable identifiers, final ForkJoinPool pool) {
+		return lexParallel(code, identifiers, pool, DEFAULT_CHUNK_SIZE);
+	}
 
-		if (!it.hasNext()) {
-			return Optional.empty();
+	static TokenBuffer lexParallel(
+			final char[] code, final IdentifierTable identifiers, final ForkJoinPool pool, final int chunkSize) {
+		Objects.requireNonNull(code);
+		Objects.requireNonNull(pool);
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException(String.format("Invalid chunk size %,d.", chunkSize));
+		}
+		if (code.length < 2L * chunkSize || UnicodeEscapes.find(code, 0, code.length) >= 0) {
+			return lex(code, identifiers);
 		}
 
-		return Optional.of(switch (it.current()) {
-			case '{' -> {
-				it.move();
-				yield JavaSymbols.LEFT_CURLY_BRACKET;
-			}
-			case '}' -> {
-				it.move();
-				yield JavaSymbols.RIGHT_CURLY_BRACKET;
-			}
-			case '[' -> {
-				it.move();
-				yield JavaSymbols.LEFT_SQUARE_BRACKET;
-			}
-			case ']' -> {
-				it.move();
-				yield JavaSymbols.RIGHT_SQUARE_BRACKET;
-			}
-			case '(' -> {
-				it.move();
-				yield JavaSymbols.LEFT_BRACKET;
-			}
-			case ')' -> {
-				it.move();
-				yield JavaSymbols.RIGHT_BRACKET;
-			}
-			case '.' -> {
-				it.move();
-				yield JavaSymbols.DOT;
-			}
-			case ',' -> {
-				it.move();
-				yield JavaSymbols.COMMA;
-			}
-			case ':' -> {
-				it.move();
-				yield JavaSymbols.COLON;
-			}
-			case ';' -> {
-				it.move();
-				yield JavaSymbols.SEMICOLON;
-			}
-			case '~' -> {
-				it.move();
-				yield JavaSymbols.TILDE;
-			}
-			case '!' -> {
-				it.move();
-				yield JavaSymbols.EXCLAMATION_MARK;
-			}
-			case '?' -> {
-				it.move();
-				yield JavaSymbols.QUESTION_MARK;
-			}
-			case '@' -> {
-				it.move();
-				yield JavaSymbols.AT_SIGN;
-			}
-			case '#' -> throw new UnknownTokenException('#');
-			case '<' -> {
-				if (it.hasNext(3) && it.next() == '<' && it.current(2) == '=') {
-					it.move(3);
-					yield JavaSymbols.LEFT_SHIFT_EQUAL;
-				} else if (it.hasNext(2)) {
-					if (it.next() == '=') {
-						it.move(2);
-						yield JavaSymbols.LESS_OR_EQUAL;
-					} else if (it.next() == '<') {
-						it.move(2);
-						yield JavaSymbols.LEFT_SHIFT;
-					}
-				}
-				it.move();
-				yield JavaSymbols.LEFT_ANGLE_BRACKET;
-			}
-			case '>' -> {
-				if (it.hasNext(4) && it.next() == '>' && it.current(2) == '>' && it.current(3) == '=') {
-					it.move(4);
-					yield JavaSymbols.UNSIGNED_RIGHT_SHIFT_EQUAL;
-				} else if (it.hasNext(3) && it.next() == '>' && it.current(2) == '=') {
-					it.move(3);
-					yield JavaSymbols.RIGHT_SHIFT_EQUAL;
-				} else if (it.hasNext(3) && it.next() == '>' && it.current(2) == '>') {
-					it.move(3);
-					yield JavaSymbols.UNSIGNED_RIGHT_SHIFT;
-				} else if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.GREATER_OR_EQUAL;
-				} else if (it.hasNext(2) && it.next() == '>') {
-					it.move(2);
-					yield JavaSymbols.RIGHT_SHIFT;
-				}
-				it.move();
-				yield JavaSymbols.RIGHT_ANGLE_BRACKET;
-			}
-			case '%' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.PERCENT_EQUAL;
-				}
-				it.move();
-				yield JavaSymbols.PERCENT;
-			}
-			case '+' -> {
-				if (it.hasNext(2)) {
-					if (it.next() == '=') {
-						it.move(2);
-						yield JavaSymbols.PLUS_EQUAL;
-					} else if (it.next() == '+') {
-						it.move(2);
-						yield JavaSymbols.PLUS_PLUS;
-					}
-				}
-				it.move();
-				yield JavaSymbols.PLUS;
-			}
-			case '-' -> {
-				if (it.hasNext(2)) {
-					if (it.next() == '=') {
-						it.move(2);
-						yield JavaSymbols.MINUS_EQUAL;
-					} else if (it.next() == '-') {
-						it.move(2);
-						yield JavaSymbols.MINUS_MINUS;
-					} else if (it.next() == '>') {
-						it.move(2);
-						yield JavaSymbols.ARROW;
-					}
-				}
-				it.move();
-				yield JavaSymbols.MINUS;
-			}
-			case '*' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.ASTERISK_EQUAL;
+		final int nChunks = (int) ((code.length + (long) chunkSize - 1) / chunkSize);
+		final int[] chunkStarts = new int[nChunks + 1];
+		for (int c = 1; c < nChunks; c++) {
+			final int boundary = c * chunkSize;
+			final int newline =
+					CharScanner.indexOf(code, boundary, Math.min(boundary + chunkSize, code.length), '\n');
+			chunkStarts[c] = newline < 0 ? boundary : newline + 1;
+		}
+		chunkStarts[nChunks] = code.length;
+
+		final List<ForkJoinTask<TokenBuffer>> chunks = new ArrayList<>(nChunks);
+		for (int c = 0; c < nChunks; c++) {
+			final int start = chunkStarts[c];
+			final int limit = chunkStarts[c + 1];
+			chunks.add(pool.submit(() -> lexChunk(code, start, limit)));
+		}
+
+		final TokenBuffer buffer = new TokenBuffer(code, identifiers, code.length / 6);
+		final JavaLexer lexer = new JavaLexer(code, 0, code.length, false);
+		lexer.trivia = buffer;
+		int c = 0;
+		TokenBuffer chunk = chunks.get(0).join();
+		int next = 0;
+		int kind;
+		while ((kind = lexer.nextToken()) != EOF) {
+			final int start = lexer.tokenStart;
+			buffer.add(kind, start, lexer.pos);
+
+			if (start >= chunkStarts[c + 1]) {
+				while (start >= chunkStarts[c + 1]) {
+					c++;
 				}
-				it.move();
-				yield JavaSymbols.ASTERISK;
+				chunk = chunks.get(c).join();
+				next = 0;
 			}
-			case '/' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.FORWARD_SLASH_EQUAL;
-				}
-				it.move();
-				yield JavaSymbols.FORWARD_SLASH;
+			while (next < chunk.size() && chunk.start(next) < start) {
+				next++;
 			}
-			case '^' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.HAT_EQUAL;
-				}
-				it.move();
-				yield JavaSymbols.HAT;
+			if (next < chunk.size() && chunk.start(next) == start) {
+				// in sync: the rest of the chunk is right, and lexing goes on after its last token
+				buffer.addAll(chunk, next + 1, chunk.size(), 0);
+				lexer.pos = buffer.end(buffer.size() - 1);
+				next = chunk.size();
 			}
-			case '|' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.PIPE_EQUAL;
-				} else if (it.hasNext(2) && it.next() == '|') {
-					it.move(2);
-					yield JavaSymbols.DOUBLE_PIPE;
+		}
+		return buffer;
+	}
+
+	// Lexes the tokens starting in [start; limit), possibly stopping early at an error.
+	private static TokenBuffer lexChunk(final char[] code, final int start, final int limit) {
+		final JavaLexer lexer = new JavaLexer(code, start, code.length, false);
+		final TokenBuffer buffer = new TokenBuffer(code, null, (limit - start) / 6);
+		lexer.trivia = buffer;
+		try {
+			int kind;
+			while ((kind = lexer.nextToken()) != EOF && lexer.tokenStart < limit) {
+				buffer.add(kind, lexer.tokenStart, lexer.pos);
+			}
+		} catch (final SyntaxException e) {
+			// either the chunk did not really start between tokens, or the error is real and the merge finds it again
+		}
+		return buffer;
+	}
+
+	/**
+	 * Tokenizes newCode, which is the source of the given buffer after the given edit, by lexing again only the
+	 * region around the edit.
+	 *
+	 * <p>Lexing restarts at the end of the last token which ended far enough before the edit, where the lexer is
+	 * known to be between tokens. As soon as a new token past the edit starts exactly where an old token (moved by
+	 * the edit) started, the rest of the old tokens are reused as they are, since the lexer would produce the very
+	 * same tokens from there on. This also covers edits which open or close comments and string literals: the
+	 * resynchronization simply happens later, or at the end of the file. Trivia are carried over the same way.
+	 *
+	 * <p>Sources with Unicode escapes, which may change the meaning of chars far from the edit, are lexed again in
+	 * full.
+	 */
+	public static TokenBuffer relex(final TokenBuffer previous, final TextEdit edit, final char[] newCode) {
+		Objects.requireNonNull(previous);
+		Objects.requireNonNull(edit);
+		Objects.requireNonNull(newCode);
+		if (edit.oldEnd() > previous.source().length || newCode.length != previous.source().length + edit.delta()) {
+			throw new IllegalArgumentException("The edit does not match the previous source and the new one.");
+		}
+		if (previous.hasEscapes() || UnicodeEscapes.find(newCode, 0, newCode.length) >= 0) {
+			return lex(newCode, previous.identifiers());
+		}
+
+		final int oldSize = previous.size();
+		final int delta = edit.delta();
+
+		// old tokens [0; kept) are unaffected: each of them ends before the edit, and so do the chars read after it
+		// while looking for a longer symbol
+		int kept = 0;
+		while (kept < oldSize && previous.end(kept) + SymbolAutomaton.LOOKAHEAD <= edit.offset()) {
+			kept++;
+		}
+
+		final TokenBuffer buffer = new TokenBuffer(newCode, previous.identifiers(), oldSize + 16);
+		buffer.addAll(previous, 0, kept, 0);
+
+		final JavaLexer lexer =
+				new JavaLexer(newCode, kept == 0 ? 0 : previous.end(kept - 1), newCode.length, false);
+		lexer.trivia = buffer;
+
+		// the first old token which lies entirely after the edit
+		int next = kept;
+		while (next < oldSize && previous.start(next) < edit.oldEnd()) {
+			next++;
+		}
+
+		int kind;
+		while ((kind = lexer.nextToken()) != EOF) {
+			if (lexer.tokenStart >= edit.newEnd()) {
+				while (next < oldSize && previous.start(next) + delta < lexer.tokenStart) {
+					next++;
 				}
-				it.move();
-				yield JavaSymbols.PIPE;
-			}
-			case '&' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.AMPERSAND_EQUAL;
-				} else if (it.hasNext(2) && it.next() == '&') {
-					it.move(2);
-					yield JavaSymbols.DOUBLE_AMPERSAND;
+				if (next < oldSize && previous.start(next) + delta == lexer.tokenStart) {
+					// the trivia before this token were just lexed again, the ones after it are reused
+					buffer.add(kind, lexer.tokenStart, lexer.pos);
+					buffer.addAll(previous, next + 1, oldSize, delta);
+					buffer.addAllTrivia(previous, previous.firstTrivia(oldSize), previous.triviaCount(), delta);
+					return buffer;
 				}
-				it.move();
-				yield JavaSymbols.AMPERSAND;
 			}
-			case '=' -> {
-				if (it.hasNext(2) && it.next() == '=') {
-					it.move(2);
-					yield JavaSymbols.DOUBLE_EQUAL;
-				}
-				it.move();
-				yield JavaSymbols.EQUAL;
+			buffer.add(kind, lexer.tokenStart, lexer.pos);
+		}
+		return buffer;
+	}
+
+	public static TokenStream stream(final String code) {
+		return stream(Objects.requireNonNull(code).toCharArray());
+	}
+
+	public static TokenStream stream(final char[] code) {
+		return stream(code, 0, code.length);
+	}
+
+	public static TokenStream stream(final char[] code, final int start, final int end) {
+		return stream(code, start, end, null);
+	}
+
+	/**
+	 * Returns a stream that lexes code[start; end) on demand, while the tokens are being consumed. If an
+	 * {@link IdentifierTable} is given, identifiers are interned in it.
+	 */
+	public static TokenStream stream(
+			final char[] code, final int start, final int end, final IdentifierTable identifiers) {
+		return new TokenStream(new JavaLexer(code, start, end), code, end, identifiers);
+	}
+
+	/**
+	 * Returns a stream like {@link #stream(char[], int, int, IdentifierTable)} which does not stop at lexical errors:
+	 * each of them is given to the consumer instead of being thrown, and lexing carries on right after the offending
+	 * text.
+	 */
+	public static TokenStream stream(
+			final char[] code,
+			final int start,
+			final int end,
+			final IdentifierTable identifiers,
+			final Consumer<SyntaxException> errors) {
+		final JavaLexer lexer = new JavaLexer(code, start, end);
+		lexer.errors = Objects.requireNonNull(errors);
+		return new TokenStream(lexer, code, end, identifiers);
+	}
+
+	boolean hasEscapes() {
+		return offsets != null;
+	}
+
+	// Maps an index of the lexed chars back to the source.
+	private int sourceOffset(final int index) {
+		return offsets == null ? index : offsets[index];
+	}
+
+	int tokenStart() {
+		return sourceOffset(tokenStart);
+	}
+
+	int position() {
+		return sourceOffset(pos);
+	}
+
+	private boolean at(final int step, final char c) {
+		return pos + step < end && code[pos + step] == c;
+	}
+
+	// Returns the kind of the next token, whose span is [tokenStart; pos), or EOF.
+	int nextToken() {
+		if (errors == null) {
+			return scanToken();
+		}
+		while (true) {
+			try {
+				return scanToken();
+			} catch (final SyntaxException e) {
+				// every error leaves pos right after the offending text
+				errors.accept(e);
 			}
+		}
+	}
+
+	private int scanToken() {
+		skipBlanksAndComments();
+
+		if (pos >= end) {
+			return EOF;
+		}
+
+		tokenStart = pos;
+
+		return switch (code[pos]) {
 			case '\'' -> {
-				it.move();
-				final StringBuilder sb = new StringBuilder();
-				while (true) {
-					if (!it.hasNext()) {
-						throw new InvalidLiteralException('\'' + sb.toString());
-					}
-					if (it.current() == '\'') {
-						break;
-					}
-					sb.append(it.current());
-					it.move();
-				}
-				it.move();
-				yield new CharLiteral(sb.toString());
+				scanQuoted('\'');
+				yield TokenBuffer.CHAR_LITERAL;
 			}
 			case '"' -> {
-				it.move();
-				final StringBuilder sb = new StringBuilder();
-				while (true) {
-					if (!it.hasNext()) {
-						throw new InvalidLiteralException('"' + sb.toString());
-					}
-					if (it.current() == '"') {
-						break;
-					}
-					sb.append(it.current());
-					it.move();
-				}
-				it.move();
-				yield new StringLiteral(sb.toString());
+				scanQuoted('"');
+				yield TokenBuffer.STRING_LITERAL;
 			}
 			default -> {
-				if (Character.isDigit(it.current())) {
-					yield parseIntegerLiteral(it);
+				final int symbol = SymbolAutomaton.longestMatch(code, pos, end);
+				if (symbol != 0) {
+					pos += SymbolAutomaton.length(symbol);
+					yield SymbolAutomaton.kind(symbol);
 				}
 
-				final StringBuilder sb = new StringBuilder();
-				while (it.hasNext() && (Character.isAlphabetic(it.current()) || Character.isDigit(it.current())
-						|| it.current() == '_' || it.current() == '$' || it.current() == '£' || it.current() == '€')) {
-					sb.append(it.current());
-					it.move();
+				if (Character.isDigit(code[pos])) {
+					scanIntegerLiteral();
+					yield TokenBuffer.INTEGER_LITERAL;
 				}
-				final String str = sb.toString();
-				yield switch (str) {
-					case "public" -> JavaKeywords.PUBLIC;
-					case "private" -> JavaKeywords.PRIVATE;
-					case "protected" -> JavaKeywords.PROTECTED;
-					case "static" -> JavaKeywords.STATIC;
-					case "final" -> JavaKeywords.FINAL;
-					case "volatile" -> JavaKeywords.VOLATILE;
-					case "synchronized" -> JavaKeywords.SYNCHRONIZED;
-					case "strictfp" -> JavaKeywords.STRICTFP;
-					case "transient" -> JavaKeywords.TRANSIENT;
-					case "abstract" -> JavaKeywords.ABSTRACT;
-					case "native" -> JavaKeywords.NATIVE;
-					case "sealed" -> JavaKeywords.SEALED;
-					case "class" -> JavaKeywords.CLASS;
-					case "enum" -> JavaKeywords.ENUM;
-					case "interface" -> JavaKeywords.INTERFACE;
-					case "record" -> JavaKeywords.RECORD;
-					case "permits" -> JavaKeywords.PERMITS;
-					case "extends" -> JavaKeywords.EXTENDS;
-					case "implements" -> JavaKeywords.IMPLEMENTS;
-					case "package" -> JavaKeywords.PACKAGE;
-					case "import" -> JavaKeywords.IMPORT;
-					case "throws" -> JavaKeywords.THROWS;
-					case "boolean" -> JavaKeywords.BOOLEAN;
-					case "byte" -> JavaKeywords.BYTE;
-					case "char" -> JavaKeywords.CHAR;
-					case "short" -> JavaKeywords.SHORT;
-					case "int" -> JavaKeywords.INT;
-					case "float" -> JavaKeywords.FLOAT;
-					case "long" -> JavaKeywords.LONG;
-					case "double" -> JavaKeywords.DOUBLE;
-					case "void" -> JavaKeywords.VOID;
-					case "null" -> JavaKeywords.NULL;
-					case "true" -> JavaKeywords.TRUE;
-					case "false" -> JavaKeywords.FALSE;
-					case "if" -> JavaKeywords.IF;
-					case "else" -> JavaKeywords.ELSE;
-					case "do" -> JavaKeywords.DO;
-					case "while" -> JavaKeywords.WHILE;
-					case "for" -> JavaKeywords.FOR;
-					case "try" -> JavaKeywords.TRY;
-					case "catch" -> JavaKeywords.CATCH;
-					case "finally" -> JavaKeywords.FINALLY;
-					case "throw" -> JavaKeywords.THROW;
-					case "goto" -> JavaKeywords.GOTO;
-					case "return" -> JavaKeywords.RETURN;
-					case "switch" -> JavaKeywords.SWITCH;
-					case "case" -> JavaKeywords.CASE;
-					case "break" -> JavaKeywords.BREAK;
-					case "default" -> JavaKeywords.DEFAULT;
-					case "continue" -> JavaKeywords.CONTINUE;
-					case "assert" -> JavaKeywords.ASSERT;
-					case "new" -> JavaKeywords.NEW;
-					case "instanceof" -> JavaKeywords.INSTANCEOF;
-					case "this" -> JavaKeywords.THIS;
-					case "super" -> JavaKeywords.SUPER;
-					case "const" -> JavaKeywords.CONST;
-					default -> new JavaID(str);
-				};
+
+				final int start = pos;
+				while (pos < end && isIdentifierChar(code[pos])) {
+					pos++;
+				}
+				if (pos == start) {
+					throw unknownToken();
+				}
+				final JavaKeywords keyword = JavaKeywords.fromSpan(code, start, pos);
+				yield keyword == null ? TokenBuffer.ID : TokenBuffer.kindOf(keyword);
 			}
-		});
+		};
+	}
+
+	// Moves past the unknown char.
+	private UnknownTokenException unknownToken() {
+		final UnknownTokenException e = new UnknownTokenException(code[pos], source, sourceOffset(pos));
+		pos++;
+		return e;
+	}
+
+	private static boolean isIdentifierChar(final char c) {
+		return Character.isAlphabetic(c) || Character.isDigit(c) || c == '_' || c == '$' || c == '£' || c == '€';
+	}
+
+	// Scans a char or string literal, quotes included.
+	private void scanQuoted(final char quote) {
+		final int open = pos;
+		final int close = CharScanner.indexOf(code, open + 1, end, quote);
+		// an unterminated literal takes the rest of the input
+		pos = close < 0 ? end : close + 1;
+		// a char literal holds one char, or an escape sequence of up to six
+		if (close < 0 || (quote == '\'' && (close == open + 1 || close - open - 1 > 6))) {
+			throw new InvalidLiteralException(
+					new String(code, open, pos - open), source, sourceOffset(open), sourceOffset(pos));
+		}
 	}
 
-	private static JavaToken parseIntegerLiteral(final CharacterIterator it) {
-		BigInteger x = BigInteger.ZERO;
+	private static boolean isHexDigit(final char c) {
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
 
-		if (it.hasNext(2) && it.current() == '0' && it.current(1) == 'x') {
+	private void scanIntegerLiteral() {
+		final int start = pos;
+		boolean octal = false;
+		if (code[pos] == '0' && (at(1, 'x') || at(1, 'X'))) {
 			// hexadecimal literal
-			it.move(2);
-			while (it.hasNext()
-					&& (Character.isDigit(it.current())
-							|| it.current() == 'a'
-							|| it.current() == 'b'
-							|| it.current() == 'c'
-							|| it.current() == 'd'
-							|| it.current() == 'e'
-							|| it.current() == 'f')) {
-				x = x.shiftLeft(4).add(new BigInteger(String.valueOf(it.current()), 16));
-				it.move();
+			pos += 2;
+			while (pos < end && (isHexDigit(code[pos]) || code[pos] == '_')) {
+				pos++;
 			}
-		} else if (it.hasNext(2) && it.current() == '0' && it.next() == 'b') {
+		} else if (code[pos] == '0' && (at(1, 'b') || at(1, 'B'))) {
 			// binary literal
-			it.move(2);
-			while (it.hasNext() && (it.current() == '0' || it.current() == '1')) {
-				x = x.shiftLeft(1).add((it.current() == '1') ? BigInteger.ONE : BigInteger.ZERO);
-				it.move();
+			pos += 2;
+			while (pos < end && (code[pos] == '0' || code[pos] == '1' || code[pos] == '_')) {
+				pos++;
 			}
 		} else {
-			// base-10 literal
-			while (it.hasNext() && (Character.isDigit(it.current()) || it.current() == '_')) {
-				if (Character.isDigit(it.current())) {
-					x = x.multiply(BigInteger.TEN).add(new BigInteger(String.valueOf(it.current())));
-				}
-				it.move();
+			// base-10 or octal literal
+			octal = code[pos] == '0';
+			while (pos < end && (Character.isDigit(code[pos]) || code[pos] == '_')) {
+				pos++;
 			}
 		}
+		final int digitsEnd = pos;
 
-		if (it.hasNext() && it.current() == 'L') {
-			it.move();
-			return new IntegerLiteral(x, true);
+		if (at(0, 'L') || at(0, 'l')) {
+			pos++;
 		}
 
-		return new IntegerLiteral(x);
+		// checked after the suffix, so that lexing carries on after the whole literal
+		if (octal) {
+			for (int i = start + 1; i < digitsEnd; i++) {
+				if (code[i] != '_' && Character.digit(code[i], 8) < 0) {
+					throw new InvalidLiteralException(
+							new String(code, start, digitsEnd - start),
+							source,
+							sourceOffset(start),
+							sourceOffset(digitsEnd));
+				}
+			}
+		}
 	}
 
-	private static void skipBlanksAndComments(final CharacterIterator it) {
+	private void skipBlanksAndComments() {
 		boolean again;
 		do {
 			again = false;
-			if (isBlank(it)) {
-				skipBlanks(it);
+			if (pos < end && Character.isWhitespace(code[pos])) {
+				final int start = pos;
+				pos = CharScanner.skipBlanks(code, pos, end);
+				recordTrivia(TriviaKind.WHITESPACE, start);
 				again = true;
 			}
-			if (isLineComment(it)) {
-				skipLineComment(it);
+			if (at(0, '/') && at(1, '/')) {
+				final int start = pos;
+				skipLineComment();
+				recordTrivia(TriviaKind.LINE_COMMENT, start);
 				again = true;
 			}
-			if (isBlockComment(it)) {
-				skipBlockComment(it);
+			if (at(0, '/') && at(1, '*')) {
+				final int start = pos;
+				skipBlockComment();
+				recordTrivia(TriviaKind.BLOCK_COMMENT, start);
 				again = true;
 			}
 		} while (again);
 	}
 
-	private static boolean isBlank(final CharacterIterator it) {
-		return it.hasNext() && Character.isWhitespace(it.current());
-	}
-
-	private static void skipBlanks(final CharacterIterator it) {
-		while (it.hasNext() && Character.isWhitespace(it.current())) {
-			it.move();
+	private void recordTrivia(final TriviaKind kind, final int start) {
+		if (trivia != null) {
+			trivia.addTrivia(kind, start, pos);
 		}
 	}
 
-	private static boolean isLineComment(final CharacterIterator it) {
-		return it.hasNext(2) && it.current() == '/' && it.next() == '/';
-	}
-
-	private static void skipLineComment(final CharacterIterator it) {
-		it.move();
-		do {
-			it.move();
-		} while (it.current() != '\n');
-		it.move();
-	}
-
-	private static boolean isBlockComment(final CharacterIterator it) {
-		return it.hasNext(2) && it.current() == '/' && it.next() == '*';
+	// A line comment reaching the end of the input is still a valid comment. The line terminator is left to be
+	// skipped as whitespace.
+	private void skipLineComment() {
+		final int newline = CharScanner.indexOf(code, pos + 2, end, '\n');
+		pos = newline < 0 ? end : newline;
 	}
 
-	private static void skipBlockComment(final CharacterIterator it) {
-		it.move();
-		do {
-			it.move();
-		} while (it.current() != '*' || it.next() != '/');
-		it.move();
-		it.move();
+	private void skipBlockComment() {
+		final int close = CharScanner.indexOfBlockCommentEnd(code, pos + 2, end);
+		if (close < 0) {
+			final int start = pos;
+			pos = end;
+			throw new UnterminatedCommentException(source, sourceOffset(start), sourceOffset(end));
+		}
+		pos = close + 2;
 	}
 }
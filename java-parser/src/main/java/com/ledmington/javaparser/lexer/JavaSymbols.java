@@ -1,53 +1,67 @@
 package com.ledmington.javaparser.lexer;
 
+import java.util.Objects;
+
 /** Does it even make sense to make a class separate from {@link JavaKeywords}? */
 public enum JavaSymbols implements JavaToken {
-	LEFT_CURLY_BRACKET,
-	RIGHT_CURLY_BRACKET,
-	DOT,
-	COMMA,
-	SEMICOLON,
-	COLON,
-	LEFT_SQUARE_BRACKET,
-	RIGHT_SQUARE_BRACKET,
-	LEFT_BRACKET,
-	RIGHT_BRACKET,
-	LEFT_ANGLE_BRACKET,
-	RIGHT_ANGLE_BRACKET,
-	PLUS,
-	MINUS,
-	ASTERISK,
-	FORWARD_SLASH,
-	HAT,
-	PIPE,
-	AMPERSAND,
-	TILDE,
-	EXCLAMATION_MARK,
-	QUESTION_MARK,
-	DOUBLE_AMPERSAND,
-	DOUBLE_PIPE,
-	EQUAL,
-	DOUBLE_EQUAL,
-	NOT_EQUAL,
-	LESS_OR_EQUAL,
-	GREATER_OR_EQUAL,
-	ARROW,
-	PERCENT,
-	PLUS_PLUS,
-	MINUS_MINUS,
-	PLUS_EQUAL,
-	MINUS_EQUAL,
-	ASTERISK_EQUAL,
-	FORWARD_SLASH_EQUAL,
-	PERCENT_EQUAL,
-	PIPE_EQUAL,
-	AMPERSAND_EQUAL,
-	HAT_EQUAL,
-	AT_SIGN,
-	LEFT_SHIFT,
-	LEFT_SHIFT_EQUAL,
-	RIGHT_SHIFT,
-	RIGHT_SHIFT_EQUAL,
-	UNSIGNED_RIGHT_SHIFT,
-	UNSIGNED_RIGHT_SHIFT_EQUAL
+	LEFT_CURLY_BRACKET("{"),
+	RIGHT_CURLY_BRACKET("}"),
+	DOT("."),
+	COMMA(","),
+	SEMICOLON(";"),
+	COLON(":"),
+	LEFT_SQUARE_BRACKET("["),
+	RIGHT_SQUARE_BRACKET("]"),
+	LEFT_BRACKET("("),
+	RIGHT_BRACKET(")"),
+	LEFT_ANGLE_BRACKET("<"),
+	RIGHT_ANGLE_BRACKET(">"),
+	PLUS("+"),
+	MINUS("-"),
+	ASTERISK("*"),
+	FORWARD_SLASH("/"),
+	HAT("^"),
+	PIPE("|"),
+	AMPERSAND("&"),
+	TILDE("~"),
+	EXCLAMATION_MARK("!"),
+	QUESTION_MARK("?"),
+	DOUBLE_AMPERSAND("&&"),
+	DOUBLE_PIPE("||"),
+	EQUAL("="),
+	DOUBLE_EQUAL("=="),
+	NOT_EQUAL("!="),
+	LESS_OR_EQUAL("<="),
+	GREATER_OR_EQUAL(">="),
+	ARROW("->"),
+	PERCENT("%"),
+	PLUS_PLUS("++"),
+	MINUS_MINUS("--"),
+	PLUS_EQUAL("+="),
+	MINUS_EQUAL("-="),
+	ASTERISK_EQUAL("*="),
+	FORWARD_SLASH_EQUAL("/="),
+	PERCENT_EQUAL("%="),
+	PIPE_EQUAL("|="),
+	AMPERSAND_EQUAL("&="),
+	HAT_EQUAL("^="),
+	AT_SIGN("@"),
+	LEFT_SHIFT("<<"),
+	LEFT_SHIFT_EQUAL("<<="),
+	RIGHT_SHIFT(">>"),
+	RIGHT_SHIFT_EQUAL(">>="),
+	UNSIGNED_RIGHT_SHIFT(">>>"),
+	UNSIGNED_RIGHT_SHIFT_EQUAL(">>>="),
+	DOUBLE_COLON("::"),
+	ELLIPSIS("...");
+
+	private final String repr;
+
+	JavaSymbols(final String repr) {
+		this.repr = Objects.requireNonNull(repr);
+	}
+
+	String repr() {
+		return repr;
+	}
 }
@@ -0,0 +1,79 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The offsets at which each line of a source starts, so that any offset can be turned into a line and a column
+ * with a binary search instead of keeping track of them while scanning. Lines and columns start from 1.
+ */
+public final class LineIndex {
+
+	private final int length;
+	private final int[] lineStarts;
+
+	public LineIndex(final char[] code) {
+		this(Objects.requireNonNull(code).length, countLines(code));
+		int line = 1;
+		for (int i = 0; i < code.length; i++) {
+			if (code[i] == '\n') {
+				lineStarts[line++] = i + 1;
+			}
+		}
+	}
+
+	public LineIndex(final CharSequence code) {
+		this(Objects.requireNonNull(code).length(), countLines(code));
+		int line = 1;
+		for (int i = 0; i < length; i++) {
+			if (code.charAt(i) == '\n') {
+				lineStarts[line++] = i + 1;
+			}
+		}
+	}
+
+	private LineIndex(final int length, final int lines) {
+		this.length = length;
+		this.lineStarts = new int[lines];
+	}
+
+	private static int countLines(final char[] code) {
+		int lines = 1;
+		for (final char c : code) {
+			if (c == '\n') {
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	private static int countLines(final CharSequence code) {
+		int lines = 1;
+		for (int i = 0; i < code.length(); i++) {
+			if (code.charAt(i) == '\n') {
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	public int lineCount() {
+		return lineStarts.length;
+	}
+
+	/** Returns the offset of the first character of the given line. */
+	public int lineStart(final int line) {
+		Objects.checkIndex(line - 1, lineStarts.length);
+		return lineStarts[line - 1];
+	}
+
+	public int line(final int offset) {
+		Objects.checkIndex(offset, length + 1);
+		final int idx = Arrays.binarySearch(lineStarts, offset);
+		return idx >= 0 ? idx + 1 : -idx - 1;
+	}
+
+	public int column(final int offset) {
+		return offset - lineStarts[line(offset) - 1] + 1;
+	}
+}
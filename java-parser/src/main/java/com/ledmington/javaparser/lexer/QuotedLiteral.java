@@ -0,0 +1,87 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A string or char literal. A literal read by the lexer is only a view over the source, and its content is copied
+ * into a String the first time it is asked for. Two literals are equal when their contents are, regardless of
+ * where they come from.
+ */
+abstract sealed class QuotedLiteral implements JavaToken permits StringLiteral, CharLiteral {
+
+	private final char quote;
+	// the content, between the quotes, is [start; end) of source when source is not null
+	private final char[] source;
+	private final int start;
+	private final int end;
+	private String content;
+
+	protected QuotedLiteral(final char quote, final String content) {
+		this.quote = quote;
+		this.source = null;
+		this.start = 0;
+		this.end = 0;
+		this.content = Objects.requireNonNull(content);
+	}
+
+	protected QuotedLiteral(final char quote, final char[] source, final int start, final int end) {
+		Objects.checkFromToIndex(start, end, source.length);
+		this.quote = quote;
+		this.source = source;
+		this.start = start;
+		this.end = end;
+	}
+
+	public final int length() {
+		return source == null ? content.length() : end - start;
+	}
+
+	public final String content() {
+		if (content == null) {
+			content = new String(source, start, end - start);
+		}
+		return content;
+	}
+
+	/** Returns the literal as it was written, quotes included. */
+	public final String spelling() {
+		return source == null ? quote + content + quote : new String(source, start - 1, end - start + 2);
+	}
+
+	@Override
+	public final String toString() {
+		return getClass().getSimpleName() + "[content=" + content() + "]";
+	}
+
+	@Override
+	public final int hashCode() {
+		if (source == null) {
+			return content.hashCode();
+		}
+		// the same as String.hashCode, without building the string
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + source[i];
+		}
+		return h;
+	}
+
+	@Override
+	public final boolean equals(final Object other) {
+		if (other == null) {
+			return false;
+		}
+		if (this == other) {
+			return true;
+		}
+		if (!this.getClass().equals(other.getClass())) {
+			return false;
+		}
+		final QuotedLiteral ql = (QuotedLiteral) other;
+		if (this.source != null && ql.source != null) {
+			return Arrays.equals(this.source, this.start, this.end, ql.source, ql.start, ql.end);
+		}
+		return this.content().equals(ql.content());
+	}
+}
@@ -0,0 +1,104 @@
+package com.ledmington.javaparser.lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reads UTF-8 source files straight into the char[] the lexer works on. ASCII bytes, which make up almost all of
+ * any Java source, are just widened, and only the multi-byte sequences are actually decoded. No intermediate
+ * String is ever built.
+ */
+public final class SourceReader {
+
+	// below this size, mapping a file costs more than reading it
+	private static final long MAPPING_THRESHOLD = 64L * 1024L;
+
+	private SourceReader() {}
+
+	public static char[] read(final Path path) throws IOException {
+		Objects.requireNonNull(path);
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size < MAPPING_THRESHOLD) {
+				return decode(ByteBuffer.wrap(Files.readAllBytes(path)));
+			}
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(String.format("File '%s' is too big (%,d bytes).", path, size));
+			}
+			return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0L, size));
+		}
+	}
+
+	public static char[] decode(final byte[] bytes) throws MalformedInputException {
+		return decode(ByteBuffer.wrap(Objects.requireNonNull(bytes)));
+	}
+
+	/** Decodes all the bytes between the position and the limit of the given buffer, skipping a leading BOM. */
+	public static char[] decode(final ByteBuffer bytes) throws MalformedInputException {
+		final int end = bytes.limit();
+		int i = bytes.position();
+		if (end - i >= 3 && bytes.get(i) == (byte) 0xef && bytes.get(i + 1) == (byte) 0xbb
+				&& bytes.get(i + 2) == (byte) 0xbf) {
+			i += 3;
+		}
+
+		// UTF-8 never needs more chars than bytes
+		final char[] chars = new char[end - i];
+		int n = 0;
+		while (i < end) {
+			final byte b = bytes.get(i);
+			if (b >= 0) {
+				chars[n++] = (char) b;
+				i++;
+				continue;
+			}
+
+			final int b0 = b & 0xff;
+			final int length;
+			int cp;
+			if (b0 >= 0xc2 && b0 <= 0xdf) {
+				length = 2;
+				cp = b0 & 0x1f;
+			} else if (b0 >= 0xe0 && b0 <= 0xef) {
+				length = 3;
+				cp = b0 & 0x0f;
+			} else if (b0 >= 0xf0 && b0 <= 0xf4) {
+				length = 4;
+				cp = b0 & 0x07;
+			} else {
+				throw new MalformedInputException(1);
+			}
+			if (i + length > end) {
+				throw new MalformedInputException(end - i);
+			}
+			for (int j = 1; j < length; j++) {
+				final int cont = bytes.get(i + j) & 0xff;
+				if ((cont & 0xc0) != 0x80) {
+					throw new MalformedInputException(j);
+				}
+				cp = (cp << 6) | (cont & 0x3f);
+			}
+			if ((length == 3 && (cp < 0x800 || Character.isSurrogate((char) cp)))
+					|| (length == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT))) {
+				throw new MalformedInputException(length);
+			}
+
+			if (length == 4) {
+				chars[n++] = Character.highSurrogate(cp);
+				chars[n++] = Character.lowSurrogate(cp);
+			} else {
+				chars[n++] = (char) cp;
+			}
+			i += length;
+		}
+
+		return n == chars.length ? chars : Arrays.copyOf(chars, n);
+	}
+}
@@ -1,9 +1,13 @@
 package com.ledmington.javaparser.lexer;
 
-import java.util.Objects;
+public final class StringLiteral extends QuotedLiteral {
 
-public record StringLiteral(String content) implements JavaToken{
-	public StringLiteral {
-		Objects.requireNonNull(content);
+	public StringLiteral(final String content) {
+		super('"', content);
+	}
+
+	// the content is [start; end) of source, which must have quotes around it
+	StringLiteral(final char[] source, final int start, final int end) {
+		super('"', source, start, end);
 	}
 }
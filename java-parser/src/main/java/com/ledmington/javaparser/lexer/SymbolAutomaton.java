@@ -0,0 +1,106 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Arrays;
+
+/**
+ * A DFA recognizing the spellings of all {@link JavaSymbols}, built once from them. States are numbered from 0,
+ * the start state, and the transitions of each state are a row of ALPHABET entries in a flat table, where 0 means
+ * that there is no transition, since no state goes back to the start.
+ */
+final class SymbolAutomaton {
+
+	// all symbols are spelled with ASCII chars
+	private static final int ALPHABET = 128;
+	private static final int NO_SYMBOL = -1;
+
+	private static final int[] TRANSITIONS;
+	// the symbol accepted by each state, as a TokenBuffer kind, or NO_SYMBOL
+	private static final int[] ACCEPTED;
+	// how many chars lead from the start to each state
+	private static final int[] DEPTHS;
+
+	/**
+	 * How many chars past the end of a symbol may be read while looking for a longer one: one more than the longest
+	 * run of states which do not accept, like the one for ".." on the way to "...".
+	 */
+	static final int LOOKAHEAD;
+
+	static {
+		int[] transitions = new int[ALPHABET * 64];
+		int[] accepted = new int[64];
+		int[] depths = new int[64];
+		Arrays.fill(accepted, NO_SYMBOL);
+		int states = 1;
+
+		for (final JavaSymbols s : JavaSymbols.values()) {
+			int state = 0;
+			for (int i = 0; i < s.repr().length(); i++) {
+				final char c = s.repr().charAt(i);
+				if (c >= ALPHABET) {
+					throw new AssertionError(String.format("Symbol %s is not ASCII.", s));
+				}
+				if (transitions[state * ALPHABET + c] == 0) {
+					if (states == accepted.length) {
+						transitions = Arrays.copyOf(transitions, transitions.length * 2);
+						accepted = Arrays.copyOf(accepted, accepted.length * 2);
+						depths = Arrays.copyOf(depths, depths.length * 2);
+						Arrays.fill(accepted, states, accepted.length, NO_SYMBOL);
+					}
+					depths[states] = i + 1;
+					transitions[state * ALPHABET + c] = states++;
+				}
+				state = transitions[state * ALPHABET + c];
+			}
+			accepted[state] = TokenBuffer.kindOf(s);
+		}
+
+		int longestRun = 0;
+		for (final JavaSymbols s : JavaSymbols.values()) {
+			int state = 0;
+			int run = 0;
+			for (int i = 0; i < s.repr().length(); i++) {
+				state = transitions[state * ALPHABET + s.repr().charAt(i)];
+				run = accepted[state] == NO_SYMBOL ? run + 1 : 0;
+				longestRun = Math.max(longestRun, run);
+			}
+		}
+		LOOKAHEAD = longestRun + 1;
+
+		TRANSITIONS = Arrays.copyOf(transitions, states * ALPHABET);
+		ACCEPTED = Arrays.copyOf(accepted, states);
+		DEPTHS = Arrays.copyOf(depths, states);
+	}
+
+	private SymbolAutomaton() {}
+
+	/**
+	 * Returns the state reached by the longest symbol starting at code[start], or 0 if no symbol starts there. Its
+	 * kind and length are given by {@link #kind(int)} and {@link #length(int)}.
+	 */
+	static int longestMatch(final char[] code, final int start, final int end) {
+		int state = 0;
+		int match = 0;
+		for (int i = start; i < end; i++) {
+			final char c = code[i];
+			if (c >= ALPHABET) {
+				break;
+			}
+			state = TRANSITIONS[state * ALPHABET + c];
+			if (state == 0) {
+				break;
+			}
+			if (ACCEPTED[state] != NO_SYMBOL) {
+				match = state;
+			}
+		}
+		return match;
+	}
+
+	static int kind(final int state) {
+		return ACCEPTED[state];
+	}
+
+	static int length(final int state) {
+		return DEPTHS[state];
+	}
+}
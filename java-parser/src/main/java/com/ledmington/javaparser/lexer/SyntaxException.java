@@ -0,0 +1,65 @@
+package com.ledmington.javaparser.lexer;
+
+import java.io.Serial;
+
+/**
+ * An error in the source being lexed or parsed. Syntax errors are expected, even frequent, when checking code which
+ * is still being written, so they are cheap to throw: they do not capture a stack trace and they only keep the span
+ * of the offending text, while its line and column, as well as the message, are computed only when asked for.
+ */
+public abstract class SyntaxException extends RuntimeException {
+
+	@Serial
+	private static final long serialVersionUID = -2473658212360413096L;
+
+	// the span [start; end) of source, or -1 when it is not known
+	private final transient char[] source;
+	private final int start;
+	private final int end;
+
+	protected SyntaxException(final char[] source, final int start, final int end) {
+		super(null, null, false, false);
+		if (start < -1 || end < start || (source != null && end > source.length)) {
+			throw new IllegalArgumentException(String.format("Invalid span [%,d; %,d).", start, end));
+		}
+		this.source = source;
+		this.start = start;
+		this.end = end;
+	}
+
+	/** Returns the offset of the first char of the offending text, or -1 when it is not known. */
+	public int start() {
+		return start;
+	}
+
+	/** Returns the offset right after the last char of the offending text, or -1 when it is not known. */
+	public int end() {
+		return end;
+	}
+
+	private boolean hasPosition() {
+		return source != null && start >= 0;
+	}
+
+	/** Returns the line of the offending text, starting from 1, or -1 when it is not known. */
+	public int line() {
+		return hasPosition() ? new LineIndex(source).line(start) : -1;
+	}
+
+	/** Returns the column of the offending text, starting from 1, or -1 when it is not known. */
+	public int column() {
+		return hasPosition() ? new LineIndex(source).column(start) : -1;
+	}
+
+	/** Describes the error, without its position. */
+	protected abstract String describe();
+
+	@Override
+	public String getMessage() {
+		if (!hasPosition()) {
+			return describe();
+		}
+		final LineIndex lines = new LineIndex(source);
+		return String.format("%s at line %,d, column %,d", describe(), lines.line(start), lines.column(start));
+	}
+}
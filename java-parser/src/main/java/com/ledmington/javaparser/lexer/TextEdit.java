@@ -0,0 +1,45 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Objects;
+
+/** A single change to a source: removedLength chars starting at offset are replaced by insertedText. */
+public record TextEdit(int offset, int removedLength, String insertedText) {
+
+	public TextEdit {
+		if (offset < 0) {
+			throw new IllegalArgumentException(String.format("Invalid edit offset %,d.", offset));
+		}
+		if (removedLength < 0) {
+			throw new IllegalArgumentException(String.format("Invalid removed length %,d.", removedLength));
+		}
+		Objects.requireNonNull(insertedText);
+	}
+
+	public int insertedLength() {
+		return insertedText.length();
+	}
+
+	/** The offset, in the old source, of the first char after the removed ones. */
+	public int oldEnd() {
+		return offset + removedLength;
+	}
+
+	/** The offset, in the new source, of the first char after the inserted ones. */
+	public int newEnd() {
+		return offset + insertedText.length();
+	}
+
+	/** How much every offset after the edit moves. */
+	public int delta() {
+		return insertedText.length() - removedLength;
+	}
+
+	public char[] applyTo(final char[] code) {
+		Objects.checkFromIndexSize(offset, removedLength, code.length);
+		final char[] result = new char[code.length + delta()];
+		System.arraycopy(code, 0, result, 0, offset);
+		insertedText.getChars(0, insertedText.length(), result, offset);
+		System.arraycopy(code, oldEnd(), result, newEnd(), code.length - oldEnd());
+		return result;
+	}
+}
@@ -0,0 +1,319 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact, struct-of-arrays list of tokens. Each token is stored as a kind plus the span it occupies in the
+ * source, and its {@link JavaToken} value is only built when asked for with {@link #token(int)}.
+ *
+ * <p>Whitespace and comments are kept in a side-table of trivia, stored as spans as well. Each token owns the
+ * trivia which precede it, which are those in [{@link #firstTrivia(int) firstTrivia(i)};
+ * {@link #firstTrivia(int) firstTrivia(i + 1)}), while the ones after the last token start at
+ * {@code firstTrivia(size())}.
+ */
+public final class TokenBuffer {
+
+	public static final int ID = 0;
+	public static final int INTEGER_LITERAL = 1;
+	public static final int STRING_LITERAL = 2;
+	public static final int CHAR_LITERAL = 3;
+
+	private static final char[] EMPTY = new char[0];
+	private static final TriviaKind[] TRIVIA_KINDS = TriviaKind.values();
+	private static final JavaKeywords[] KEYWORDS = JavaKeywords.values();
+	private static final JavaSymbols[] SYMBOLS = JavaSymbols.values();
+	private static final int FIRST_KEYWORD = 4;
+	private static final int FIRST_SYMBOL = FIRST_KEYWORD + KEYWORDS.length;
+
+	private char[] source;
+	private IdentifierTable identifiers;
+	private int size = 0;
+	private int[] kinds;
+	private int[] starts;
+	private int[] lengths;
+	// how many trivia there were when each token was added, that is where the trivia after it start
+	private int[] triviaEnds;
+	private int triviaSize = 0;
+	private int[] triviaKinds;
+	private int[] triviaStarts;
+	private int[] triviaLengths;
+	// whether the source has Unicode escapes, which identifiers and integer literals must translate
+	private boolean escaped = false;
+	private LineIndex lines = null;
+
+	TokenBuffer(final char[] source, final IdentifierTable identifiers, final int initialCapacity) {
+		this.source = Objects.requireNonNull(source);
+		this.identifiers = identifiers;
+		final int capacity = Math.max(16, initialCapacity);
+		this.kinds = new int[capacity];
+		this.starts = new int[capacity];
+		this.lengths = new int[capacity];
+		this.triviaEnds = new int[capacity];
+		this.triviaKinds = new int[capacity];
+		this.triviaStarts = new int[capacity];
+		this.triviaLengths = new int[capacity];
+	}
+
+	// Empties the buffer to lex another source into it, keeping the arrays it has grown so far.
+	void reset(final char[] source, final IdentifierTable identifiers) {
+		this.source = Objects.requireNonNull(source);
+		this.identifiers = identifiers;
+		this.size = 0;
+		this.triviaSize = 0;
+		this.escaped = false;
+		this.lines = null;
+	}
+
+	/** Empties the buffer and lets go of its source, keeping the arrays it has grown so far. */
+	public void clear() {
+		reset(EMPTY, identifiers);
+	}
+
+	public static int kindOf(final JavaKeywords keyword) {
+		return FIRST_KEYWORD + keyword.ordinal();
+	}
+
+	public static int kindOf(final JavaSymbols symbol) {
+		return FIRST_SYMBOL + symbol.ordinal();
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity > kinds.length) {
+			final int newCapacity = Math.max(capacity, kinds.length + (kinds.length >>> 1));
+			kinds = Arrays.copyOf(kinds, newCapacity);
+			starts = Arrays.copyOf(starts, newCapacity);
+			lengths = Arrays.copyOf(lengths, newCapacity);
+			triviaEnds = Arrays.copyOf(triviaEnds, newCapacity);
+		}
+	}
+
+	private void ensureTriviaCapacity(final int capacity) {
+		if (capacity > triviaKinds.length) {
+			final int newCapacity = Math.max(capacity, triviaKinds.length + (triviaKinds.length >>> 1));
+			triviaKinds = Arrays.copyOf(triviaKinds, newCapacity);
+			triviaStarts = Arrays.copyOf(triviaStarts, newCapacity);
+			triviaLengths = Arrays.copyOf(triviaLengths, newCapacity);
+		}
+	}
+
+	void add(final int kind, final int start, final int end) {
+		ensureCapacity(size + 1);
+		kinds[size] = kind;
+		starts[size] = start;
+		lengths[size] = end - start;
+		triviaEnds[size] = triviaSize;
+		size++;
+	}
+
+	void addTrivia(final TriviaKind kind, final int start, final int end) {
+		ensureTriviaCapacity(triviaSize + 1);
+		triviaKinds[triviaSize] = kind.ordinal();
+		triviaStarts[triviaSize] = start;
+		triviaLengths[triviaSize] = end - start;
+		triviaSize++;
+	}
+
+	// Appends the tokens [from; to) of another buffer together with their trivia, moving all of them by shift chars.
+	void addAll(final TokenBuffer other, final int from, final int to, final int shift) {
+		final int firstTrivia = other.firstTrivia(from);
+		final int triviaShift = triviaSize - firstTrivia;
+		final int n = to - from;
+		ensureCapacity(size + n);
+		System.arraycopy(other.kinds, from, kinds, size, n);
+		System.arraycopy(other.lengths, from, lengths, size, n);
+		for (int i = 0; i < n; i++) {
+			starts[size + i] = other.starts[from + i] + shift;
+			triviaEnds[size + i] = other.triviaEnds[from + i] + triviaShift;
+		}
+		size += n;
+		addAllTrivia(other, firstTrivia, other.firstTrivia(to), shift);
+	}
+
+	// Appends the trivia [from; to) of another buffer, moving all of them by shift chars.
+	void addAllTrivia(final TokenBuffer other, final int from, final int to, final int shift) {
+		final int n = to - from;
+		ensureTriviaCapacity(triviaSize + n);
+		System.arraycopy(other.triviaKinds, from, triviaKinds, triviaSize, n);
+		System.arraycopy(other.triviaLengths, from, triviaLengths, triviaSize, n);
+		for (int i = 0; i < n; i++) {
+			triviaStarts[triviaSize + i] = other.triviaStarts[from + i] + shift;
+		}
+		triviaSize += n;
+	}
+
+	// Moves all spans from the translation of the source back to the source itself.
+	void translateSpans(final int[] offsets) {
+		for (int i = 0; i < size; i++) {
+			final int end = offsets[starts[i] + lengths[i]];
+			starts[i] = offsets[starts[i]];
+			lengths[i] = end - starts[i];
+		}
+		for (int i = 0; i < triviaSize; i++) {
+			final int end = offsets[triviaStarts[i] + triviaLengths[i]];
+			triviaStarts[i] = offsets[triviaStarts[i]];
+			triviaLengths[i] = end - triviaStarts[i];
+		}
+		escaped = true;
+	}
+
+	boolean hasEscapes() {
+		return escaped;
+	}
+
+	IdentifierTable identifiers() {
+		return identifiers;
+	}
+
+	public char[] source() {
+		return source;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private void checkIndex(final int index) {
+		Objects.checkIndex(index, size);
+	}
+
+	public int kind(final int index) {
+		checkIndex(index);
+		return kinds[index];
+	}
+
+	public int start(final int index) {
+		checkIndex(index);
+		return starts[index];
+	}
+
+	public int length(final int index) {
+		checkIndex(index);
+		return lengths[index];
+	}
+
+	public int end(final int index) {
+		checkIndex(index);
+		return starts[index] + lengths[index];
+	}
+
+	/** Returns the index of the first token starting at or after the given offset, or size() if there is none. */
+	public int firstTokenAt(final int offset) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (starts[mid] < offset) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	public int triviaCount() {
+		return triviaSize;
+	}
+
+	/** Returns the index of the first trivia before the given token, or after the last one when index is size(). */
+	public int firstTrivia(final int index) {
+		Objects.checkIndex(index, size + 1);
+		return index == 0 ? 0 : triviaEnds[index - 1];
+	}
+
+	private void checkTriviaIndex(final int index) {
+		Objects.checkIndex(index, triviaSize);
+	}
+
+	public TriviaKind triviaKind(final int index) {
+		checkTriviaIndex(index);
+		return TRIVIA_KINDS[triviaKinds[index]];
+	}
+
+	public int triviaStart(final int index) {
+		checkTriviaIndex(index);
+		return triviaStarts[index];
+	}
+
+	public int triviaLength(final int index) {
+		checkTriviaIndex(index);
+		return triviaLengths[index];
+	}
+
+	public int triviaEnd(final int index) {
+		checkTriviaIndex(index);
+		return triviaStarts[index] + triviaLengths[index];
+	}
+
+	/** Returns the exact source text of the given trivia. */
+	public String triviaText(final int index) {
+		checkTriviaIndex(index);
+		return new String(source, triviaStarts[index], triviaLengths[index]);
+	}
+
+	/** Returns the line index of the source, building it the first time it is needed. */
+	public LineIndex lineIndex() {
+		if (lines == null) {
+			lines = new LineIndex(source);
+		}
+		return lines;
+	}
+
+	public int line(final int index) {
+		return lineIndex().line(start(index));
+	}
+
+	public int column(final int index) {
+		return lineIndex().column(start(index));
+	}
+
+	/** Returns the exact source text of the given token. */
+	public String text(final int index) {
+		checkIndex(index);
+		return new String(source, starts[index], lengths[index]);
+	}
+
+	/**
+	 * Returns the token at the given index. Keywords and symbols are shared constants, while literals are light
+	 * views over the source built on every call. Identifiers are too, unless the buffer was lexed with an
+	 * {@link IdentifierTable}, in which case the canonical instance is returned.
+	 */
+	public JavaToken token(final int index) {
+		checkIndex(index);
+		return token(source, identifiers, kinds[index], starts[index], starts[index] + lengths[index], escaped);
+	}
+
+	static JavaToken token(
+			final char[] source,
+			final IdentifierTable identifiers,
+			final int kind,
+			final int start,
+			final int end,
+			final boolean escaped) {
+		if (escaped && (kind == ID || kind == INTEGER_LITERAL)) {
+			// rare enough to just translate the span on its own: string and char literals keep their spelling
+			final char[] translated = UnicodeEscapes.translate(source, start, end);
+			return token(translated, identifiers, kind, 0, translated.length, false);
+		}
+		return switch (kind) {
+			case ID -> identifiers == null
+					? new JavaID(new String(source, start, end - start))
+					: identifiers.intern(source, start, end);
+			case INTEGER_LITERAL -> new IntegerLiteral(source, start, end);
+			case STRING_LITERAL -> new StringLiteral(source, start + 1, end - 1);
+			case CHAR_LITERAL -> new CharLiteral(source, start + 1, end - 1);
+			default -> kind < FIRST_SYMBOL ? KEYWORDS[kind - FIRST_KEYWORD] : SYMBOLS[kind - FIRST_SYMBOL];
+		};
+	}
+
+	public List<JavaToken> toList() {
+		final List<JavaToken> tokens = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			tokens.add(token(source, identifiers, kinds[i], starts[i], starts[i] + lengths[i], escaped));
+		}
+		return tokens;
+	}
+}
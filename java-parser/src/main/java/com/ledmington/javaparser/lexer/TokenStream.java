@@ -0,0 +1,123 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Objects;
+
+/**
+ * A pull-based source of tokens: the underlying lexer runs only when a token that has not been scanned yet is
+ * asked for, and only a small window of lookahead tokens is kept in memory at any time.
+ */
+public final class TokenStream {
+
+	/** How many tokens, starting from the current one, can be inspected. Must be a power of two. */
+	public static final int LOOKAHEAD = 4;
+
+	private static final int MASK = LOOKAHEAD - 1;
+
+	private final JavaLexer lexer;
+	private final char[] source;
+	private final int end;
+	private final IdentifierTable identifiers;
+	private final int[] kinds = new int[LOOKAHEAD];
+	private final int[] starts = new int[LOOKAHEAD];
+	private final int[] ends = new int[LOOKAHEAD];
+	private final JavaToken[] tokens = new JavaToken[LOOKAHEAD];
+
+	// absolute indices of the current token and of the first token not scanned yet
+	private int head = 0;
+	private int scanned = 0;
+	private boolean finished = false;
+	// where the last token moved past ends, since its slot may already be taken by a lookahead token
+	private int previousEnd = -1;
+
+	TokenStream(final JavaLexer lexer, final char[] source, final int end, final IdentifierTable identifiers) {
+		this.lexer = Objects.requireNonNull(lexer);
+		this.source = Objects.requireNonNull(source);
+		this.end = end;
+		this.identifiers = identifiers;
+	}
+
+	public char[] source() {
+		return source;
+	}
+
+	/** Returns the offset of the source where the lexed range ends. */
+	public int sourceEnd() {
+		return end;
+	}
+
+	/** Returns a new stream over [start; end) of the same source, which interns identifiers in the same table. */
+	public TokenStream range(final int start, final int end) {
+		return JavaLexer.stream(source, start, end, identifiers);
+	}
+
+	// Scans tokens until the one at the given absolute index is available, if it exists.
+	private boolean fill(final int index) {
+		while (scanned <= index && !finished) {
+			final int kind = lexer.nextToken();
+			if (kind == JavaLexer.EOF) {
+				finished = true;
+			} else {
+				final int slot = scanned & MASK;
+				kinds[slot] = kind;
+				starts[slot] = lexer.tokenStart();
+				ends[slot] = lexer.position();
+				tokens[slot] = null;
+				scanned++;
+			}
+		}
+		return index < scanned;
+	}
+
+	public boolean hasNext(final int step) {
+		if (step < 1 || step > LOOKAHEAD) {
+			throw new AssertionError();
+		}
+		return fill(head + step - 1);
+	}
+
+	public boolean hasNext() {
+		return hasNext(1);
+	}
+
+	private int slot(final int step) {
+		Objects.checkIndex(step, LOOKAHEAD);
+		if (!fill(head + step)) {
+			throw new IndexOutOfBoundsException(
+					String.format("No token at %,d positions after the current one.", step));
+		}
+		return (head + step) & MASK;
+	}
+
+	public int kind(final int step) {
+		return kinds[slot(step)];
+	}
+
+	public int start(final int step) {
+		return starts[slot(step)];
+	}
+
+	public int end(final int step) {
+		return ends[slot(step)];
+	}
+
+	public JavaToken token(final int step) {
+		final int slot = slot(step);
+		if (tokens[slot] == null) {
+			tokens[slot] = TokenBuffer.token(
+					source, identifiers, kinds[slot], starts[slot], ends[slot], lexer.hasEscapes());
+		}
+		return tokens[slot];
+	}
+
+	/** Returns the offset right after the last token moved past, or -1 if none was. */
+	public int previousEnd() {
+		return previousEnd;
+	}
+
+	public void move() {
+		if (fill(head)) {
+			previousEnd = ends[head & MASK];
+		}
+		head++;
+	}
+}
@@ -0,0 +1,13 @@
+package com.ledmington.javaparser.lexer;
+
+/** The kinds of source text which lie between tokens. */
+public enum TriviaKind {
+	/** A maximal run of whitespace, line terminators included. */
+	WHITESPACE,
+
+	/** A comment starting with '//', without the line terminator which ends it. */
+	LINE_COMMENT,
+
+	/** A comment starting with '/*', including the closing delimiter when there is one. */
+	BLOCK_COMMENT
+}
@@ -0,0 +1,99 @@
+package com.ledmington.javaparser.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Unicode escapes, a backslash followed by one or more 'u' and four hex digits, which Java translates before
+ * lexing. They are rare enough that the lexer only looks for them once, with {@link #find(char[], int, int)}, and
+ * translates the source only if there are any.
+ */
+final class UnicodeEscapes {
+
+	/** A translated source: chars[i] comes from the original char at offsets[i], and offsets[length] is the end. */
+	record Translation(char[] chars, int length, int[] offsets) {}
+
+	private UnicodeEscapes() {}
+
+	/** Returns the index of the first Unicode escape in code[start; end), or -1 if there are none. */
+	static int find(final char[] code, final int start, final int end) {
+		int i = CharScanner.indexOf(code, start, end, '\\');
+		while (i >= 0) {
+			int j = i;
+			while (j < end && code[j] == '\\') {
+				j++;
+			}
+			// only a backslash preceded by an even number of backslashes can start an escape
+			if ((j - 1 - i) % 2 == 0 && escapeLength(code, j - 1, end) > 0) {
+				return j - 1;
+			}
+			i = CharScanner.indexOf(code, j, end, '\\');
+		}
+		return -1;
+	}
+
+	// Returns the length of the escape starting with the backslash at code[i], or 0 if it is not a valid one.
+	private static int escapeLength(final char[] code, final int i, final int end) {
+		int j = i + 1;
+		if (j >= end || code[j] != 'u') {
+			return 0;
+		}
+		while (j < end && code[j] == 'u') {
+			j++;
+		}
+		if (j + 4 > end) {
+			return 0;
+		}
+		for (int k = j; k < j + 4; k++) {
+			if (Character.digit(code[k], 16) < 0) {
+				return 0;
+			}
+		}
+		return j + 4 - i;
+	}
+
+	private static char value(final char[] code, final int escapeEnd) {
+		int x = 0;
+		for (int k = escapeEnd - 4; k < escapeEnd; k++) {
+			x = (x << 4) | Character.digit(code[k], 16);
+		}
+		return (char) x;
+	}
+
+	/** Translates code[start; end), whose first escape is at first. */
+	static Translation translate(final char[] code, final int start, final int end, final int first) {
+		final char[] chars = new char[end - start];
+		final int[] offsets = new int[end - start + 1];
+		int n = 0;
+		int i = start;
+		int escape = first;
+		while (escape >= 0) {
+			for (; i < escape; i++, n++) {
+				chars[n] = code[i];
+				offsets[n] = i;
+			}
+			final int length = escapeLength(code, escape, end);
+			chars[n] = value(code, escape + length);
+			offsets[n] = escape;
+			n++;
+			i = escape + length;
+			// a backslash coming from an escape cannot start another one, so the search restarts after it
+			escape = find(code, i, end);
+		}
+		for (; i < end; i++, n++) {
+			chars[n] = code[i];
+			offsets[n] = i;
+		}
+		offsets[n] = end;
+		return new Translation(chars, n, offsets);
+	}
+
+	/** Returns code[start; end) with its Unicode escapes translated, if any. */
+	static char[] translate(final char[] code, final int start, final int end) {
+		final int first = find(code, start, end);
+		if (first < 0) {
+			return Arrays.copyOfRange(code, start, end);
+		}
+		final Translation t = translate(code, start, end, first);
+		return Arrays.copyOf(t.chars(), t.length());
+	}
+}
@@ -2,12 +2,29 @@ package com.ledmington.javaparser.lexer;
 
 import java.io.Serial;
 
-public final class UnknownTokenException extends RuntimeException {
+public final class UnknownTokenException extends SyntaxException {
 
 	@Serial
 	private static final long serialVersionUID = 2103339894077764034L;
 
+	private final char token;
+
 	public UnknownTokenException(final char token) {
-		super(String.format("Unknown token '%c'", token));
+		super(null, -1, -1);
+		this.token = token;
+	}
+
+	public UnknownTokenException(final char token, final char[] source, final int offset) {
+		super(source, offset, offset + 1);
+		this.token = token;
+	}
+
+	public char token() {
+		return token;
+	}
+
+	@Override
+	protected String describe() {
+		return String.format("Unknown token '%c'", token);
 	}
 }
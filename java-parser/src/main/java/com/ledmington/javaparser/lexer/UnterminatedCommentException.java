@@ -0,0 +1,19 @@
+package com.ledmington.javaparser.lexer;
+
+import java.io.Serial;
+
+public final class UnterminatedCommentException extends SyntaxException {
+
+	@Serial
+	private static final long serialVersionUID = -6148232504571385027L;
+
+	/** Builds an exception for the block comment which starts at the given offset and is still open at the end. */
+	public UnterminatedCommentException(final char[] source, final int start, final int end) {
+		super(source, start, end);
+	}
+
+	@Override
+	protected String describe() {
+		return "Unterminated block comment";
+	}
+}
@@ -5,9 +5,20 @@ import java.util.Objects;
 public final class ArrayType implements TypeNode {
 
 	private final TypeNode baseType;
+	private final long span;
 
 	public ArrayType(final TypeNode baseType) {
+		this(baseType, Span.UNKNOWN);
+	}
+
+	public ArrayType(final TypeNode baseType, final long span) {
 		this.baseType = Objects.requireNonNull(baseType);
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
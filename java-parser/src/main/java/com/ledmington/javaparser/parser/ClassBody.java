@@ -0,0 +1,16 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.List;
+
+/**
+ * The members of a parsed class in source order, together with where each of them starts and where the body between
+ * the braces starts and ends. Member i spans up to the start of the next one, or up to the end of the body for the
+ * last one, so that it owns the trivia which follow it.
+ */
+record ClassBody(List<JavaNode> members, int[] memberStarts, int start, int end) {
+
+	/** Returns the offset where the given member starts, or the end of the body for members().size(). */
+	int boundary(final int member) {
+		return member < members.size() ? memberStarts[member] : end;
+	}
+}
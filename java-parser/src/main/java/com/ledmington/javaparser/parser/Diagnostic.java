@@ -0,0 +1,23 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.JavaToken;
+
+/**
+ * A syntax error found while parsing in recovering mode: the token found at the given offset instead of any of the
+ * expected ones. The offset is the length of the source, and the found token is null, when the input finished too
+ * early, while it is -1 when the tokens came without their offsets. The found token is null as well when the one at
+ * the given offset could not be lexed. The expected tokens are empty when the parser could not tell which ones would
+ * have been valid.
+ */
+public record Diagnostic(int offset, List<JavaToken> expected, JavaToken found) {
+
+	public Diagnostic {
+		if (offset < -1) {
+			throw new IllegalArgumentException(String.format("Invalid offset %,d", offset));
+		}
+		expected = List.copyOf(Objects.requireNonNull(expected));
+	}
+}
@@ -1,8 +1,45 @@
 package com.ledmington.javaparser.parser;
 
-public record EmptyStatement() implements StatementNode {
+public final class EmptyStatement implements StatementNode {
+
+	private final long span;
+
+	public EmptyStatement() {
+		this(Span.UNKNOWN);
+	}
+
+	public EmptyStatement(final long span) {
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
+	}
+
 	@Override
 	public String toJava() {
 		return ";";
 	}
+
+	@Override
+	public String toString() {
+		return "EmptyStatement()";
+	}
+
+	@Override
+	public int hashCode() {
+		return 17;
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (other == null) {
+			return false;
+		}
+		if (this == other) {
+			return true;
+		}
+		return this.getClass().equals(other.getClass());
+	}
 }
@@ -8,13 +8,24 @@ public final class FieldAccessExpression implements ExpressionNode {
 
 	private final ExpressionNode expr;
 	private final String id;
+	private final long span;
 
 	public FieldAccessExpression(final ExpressionNode expr, final String id) {
+		this(expr, id, Span.UNKNOWN);
+	}
+
+	public FieldAccessExpression(final ExpressionNode expr, final String id, final long span) {
 		this.expr = Objects.requireNonNull(expr);
 		this.id = Objects.requireNonNull(id);
 		if (id.isBlank()) {
 			throw new IllegalArgumentException(String.format("Invalid field name '%s'", id));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
@@ -8,10 +8,21 @@ public final class FieldAssignment implements StatementNode {
 
 	private final FieldAccessExpression fae;
 	private final ExpressionNode value;
+	private final long span;
 
 	public FieldAssignment(final FieldAccessExpression fae, final ExpressionNode value) {
+		this(fae, value, Span.UNKNOWN);
+	}
+
+	public FieldAssignment(final FieldAccessExpression fae, final ExpressionNode value, final long span) {
 		this.fae = Objects.requireNonNull(fae);
 		this.value = Objects.requireNonNull(value);
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
@@ -2,6 +2,7 @@ package com.ledmington.javaparser.parser;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.ledmington.javaparser.parser.expr.ExpressionNode;
@@ -11,13 +12,36 @@ public final class FieldDeclarationNode implements JavaNode {
 	private final List<AccessModifier> modifiers;
 	private final TypeNode type;
 	private final String name;
-	private final ExpressionNode initializer;
+	private final Lazy<ExpressionNode> initializer;
+	private final long span;
 
 	public FieldDeclarationNode(
 			final List<AccessModifier> modifiers,
 			final TypeNode type,
 			final String name,
 			final ExpressionNode initializer) {
+		this(modifiers, type, name, initializer, Span.UNKNOWN);
+	}
+
+	public FieldDeclarationNode(
+			final List<AccessModifier> modifiers,
+			final TypeNode type,
+			final String name,
+			final ExpressionNode initializer,
+			final long span) {
+		this(modifiers, type, name, Lazy.of(initializer), span);
+	}
+
+	public FieldDeclarationNode(final List<AccessModifier> modifiers, final TypeNode type, final String name) {
+		this(modifiers, type, name, (ExpressionNode) null);
+	}
+
+	private FieldDeclarationNode(
+			final List<AccessModifier> modifiers,
+			final TypeNode type,
+			final String name,
+			final Lazy<ExpressionNode> initializer,
+			final long span) {
 		this.modifiers = Objects.requireNonNull(modifiers);
 		for (final AccessModifier am : modifiers) {
 			// TODO: check if the access modifiers are valid for a field declaration
@@ -29,16 +53,43 @@ public final class FieldDeclarationNode implements JavaNode {
 			throw new IllegalArgumentException(String.format("Invalid field name '%s'", name));
 		}
 		this.initializer = initializer;
+		this.span = span;
 	}
 
-	public FieldDeclarationNode(final List<AccessModifier> modifiers, final TypeNode type, final String name) {
-		this(modifiers, type, name, null);
+	/** Creates a field whose initializer is parsed by the given function only when it is first accessed. */
+	static FieldDeclarationNode withLazyInitializer(
+			final List<AccessModifier> modifiers,
+			final TypeNode type,
+			final String name,
+			final Supplier<ExpressionNode> initializerParser,
+			final long span) {
+		return new FieldDeclarationNode(modifiers, type, name, Lazy.computedBy(initializerParser), span);
+	}
+
+	@Override
+	public long span() {
+		return span;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	/** Returns the initializer, parsing it if needed, or null if the field has none. */
+	public ExpressionNode initializer() {
+		return initializer.get();
+	}
+
+	/** Returns false while the initializer is still waiting to be parsed. */
+	public boolean isInitializerParsed() {
+		return initializer.isComputed();
 	}
 
 	@Override
 	public String toJava() {
+		final ExpressionNode init = initializer();
 		return modifiers.stream().map(JavaNode::toJava).collect(Collectors.joining(" ")) + " " + type.toJava() + " "
-				+ name + (initializer == null ? "" : ("=" + initializer.toJava())) + ";";
+				+ name + (init == null ? "" : ("=" + init.toJava())) + ";";
 	}
 
 	@Override
@@ -49,8 +100,9 @@ public final class FieldDeclarationNode implements JavaNode {
 			sb.append("modifiers=").append(modifiers).append(';');
 		}
 		sb.append("type=").append(type).append(";name=").append(name);
-		if (initializer != null) {
-			sb.append(";initializer=").append(initializer);
+		final ExpressionNode init = initializer();
+		if (init != null) {
+			sb.append(";initializer=").append(init);
 		}
 		sb.append(')');
 		return sb.toString();
@@ -62,7 +114,7 @@ public final class FieldDeclarationNode implements JavaNode {
 		h = 31 * h + modifiers.hashCode();
 		h = 31 * h + type.hashCode();
 		h = 31 * h + name.hashCode();
-		h = 31 * h + (initializer == null ? 0 : initializer.hashCode());
+		h = 31 * h + Objects.hashCode(initializer());
 		return h;
 	}
 
@@ -81,6 +133,6 @@ public final class FieldDeclarationNode implements JavaNode {
 		return this.modifiers.equals(fdn.modifiers)
 				&& this.type.equals(fdn.type)
 				&& this.name.equals(fdn.name)
-				&& Objects.equals(this.initializer, fdn.initializer);
+				&& Objects.equals(this.initializer(), fdn.initializer());
 	}
 }
@@ -18,7 +18,12 @@ public final class GenericReferenceTypeNode extends ReferenceTypeNode {
 	}
 
 	public GenericReferenceTypeNode(final String className, final List<ReferenceTypeNode> innerTypes) {
-		super(className);
+		this(className, innerTypes, Span.UNKNOWN);
+	}
+
+	public GenericReferenceTypeNode(
+			final String className, final List<ReferenceTypeNode> innerTypes, final long span) {
+		super(className, span);
 		this.innerTypes = Objects.requireNonNull(innerTypes);
 		for (final ReferenceTypeNode rtn : innerTypes) {
 			Objects.requireNonNull(rtn);
@@ -6,14 +6,20 @@ import java.util.Objects;
 public final class ImportDeclarationNode implements JavaNode {
 
 	private final String[] packages;
+	private final long span;
 
 	public ImportDeclarationNode(final String basePackage, final String... subPackages) {
 		this.packages = new String[Objects.requireNonNull(subPackages).length + 1];
 		this.packages[0] = Objects.requireNonNull(basePackage);
 		System.arraycopy(subPackages, 0, this.packages, 1, subPackages.length);
+		this.span = Span.UNKNOWN;
 	}
 
 	public ImportDeclarationNode(final List<String> packageNames) {
+		this(packageNames, Span.UNKNOWN);
+	}
+
+	public ImportDeclarationNode(final List<String> packageNames, final long span) {
 		Objects.requireNonNull(packageNames);
 		if (packageNames.isEmpty()) {
 			throw new IllegalArgumentException("Cannot have a package declaration with no package names");
@@ -22,6 +28,12 @@ public final class ImportDeclarationNode implements JavaNode {
 		for (int i = 0; i < packageNames.size(); i++) {
 			this.packages[i] = Objects.requireNonNull(packageNames.get(i));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
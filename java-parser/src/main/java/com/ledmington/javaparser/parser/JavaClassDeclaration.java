@@ -1,5 +1,6 @@
 package com.ledmington.javaparser.parser;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -14,6 +15,9 @@ public final class JavaClassDeclaration implements JavaNode {
 	private final List<String> interfaces;
 	private final List<FieldDeclarationNode> fields;
 	private final List<MethodDeclarationNode> methods;
+	// null unless the declaration was parsed
+	private final ClassBody body;
+	private final long span;
 
 	public JavaClassDeclaration(
 			final PackageDeclarationNode classPackage,
@@ -24,6 +28,20 @@ public final class JavaClassDeclaration implements JavaNode {
 			final List<String> interfaces,
 			final List<FieldDeclarationNode> fields,
 			final List<MethodDeclarationNode> methods) {
+		this(classPackage, imports, modifiers, name, superClass, interfaces, fields, methods, null, Span.UNKNOWN);
+	}
+
+	private JavaClassDeclaration(
+			final PackageDeclarationNode classPackage,
+			final List<ImportDeclarationNode> imports,
+			final List<AccessModifier> modifiers,
+			final String name,
+			final String superClass,
+			final List<String> interfaces,
+			final List<FieldDeclarationNode> fields,
+			final List<MethodDeclarationNode> methods,
+			final ClassBody body,
+			final long span) {
 		this.classPackage = Objects.requireNonNull(classPackage);
 		this.imports = Objects.requireNonNull(imports);
 		for (final ImportDeclarationNode idn : imports) {
@@ -57,6 +75,71 @@ public final class JavaClassDeclaration implements JavaNode {
 		for (final MethodDeclarationNode mdn : methods) {
 			Objects.requireNonNull(mdn);
 		}
+		this.body = body;
+		this.span = span;
+	}
+
+	/** Creates a declaration from a {@link SyntaxTree}, which cannot be parsed again after an edit. */
+	static JavaClassDeclaration withSpan(
+			final PackageDeclarationNode classPackage,
+			final List<ImportDeclarationNode> imports,
+			final List<AccessModifier> modifiers,
+			final String name,
+			final String superClass,
+			final List<String> interfaces,
+			final List<FieldDeclarationNode> fields,
+			final List<MethodDeclarationNode> methods,
+			final long span) {
+		return new JavaClassDeclaration(
+				classPackage, imports, modifiers, name, superClass, interfaces, fields, methods, null, span);
+	}
+
+	/** Creates a declaration which remembers where each of its members is in the source. */
+	static JavaClassDeclaration parsed(
+			final PackageDeclarationNode classPackage,
+			final List<ImportDeclarationNode> imports,
+			final List<AccessModifier> modifiers,
+			final String name,
+			final String superClass,
+			final List<String> interfaces,
+			final ClassBody body,
+			final long span) {
+		final List<FieldDeclarationNode> fields = new ArrayList<>();
+		final List<MethodDeclarationNode> methods = new ArrayList<>();
+		for (final JavaNode member : body.members()) {
+			if (member instanceof MethodDeclarationNode method) {
+				methods.add(method);
+			} else {
+				fields.add((FieldDeclarationNode) member);
+			}
+		}
+		return new JavaClassDeclaration(
+				classPackage, imports, modifiers, name, superClass, interfaces, fields, methods, body, span);
+	}
+
+	/** Returns a declaration with the same header as this one and the given members, after an edit to its body. */
+	JavaClassDeclaration withBody(final ClassBody newBody) {
+		final long newSpan = span == Span.UNKNOWN
+				? Span.UNKNOWN
+				: Span.of(Span.start(span), Span.end(span) + newBody.end() - body.end());
+		return parsed(classPackage, imports, modifiers, name, superClass, interfaces, newBody, newSpan);
+	}
+
+	ClassBody body() {
+		return body;
+	}
+
+	@Override
+	public long span() {
+		return span;
+	}
+
+	public List<FieldDeclarationNode> fields() {
+		return fields;
+	}
+
+	public List<MethodDeclarationNode> methods() {
+		return methods;
 	}
 
 	@Override
@@ -2,4 +2,12 @@ package com.ledmington.javaparser.parser;
 
 public interface JavaNode {
 	String toJava();
+
+	/**
+	 * Returns the chars this node covers in the source it was parsed from, packed by {@link Span}. Nodes built by
+	 * hand, and shared constants like the {@link AccessModifier}s, have an {@link Span#UNKNOWN unknown} span.
+	 */
+	default long span() {
+		return Span.UNKNOWN;
+	}
 }
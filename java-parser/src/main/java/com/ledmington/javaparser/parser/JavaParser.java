@@ -1,15 +1,27 @@
 package com.ledmington.javaparser.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
+import com.ledmington.javaparser.lexer.IdentifierTable;
 import com.ledmington.javaparser.lexer.IntegerLiteral;
 import com.ledmington.javaparser.lexer.JavaID;
 import com.ledmington.javaparser.lexer.JavaKeywords;
 import com.ledmington.javaparser.lexer.JavaLexer;
 import com.ledmington.javaparser.lexer.JavaSymbols;
 import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.SyntaxException;
+import com.ledmington.javaparser.lexer.TextEdit;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+import com.ledmington.javaparser.lexer.TokenStream;
 import com.ledmington.javaparser.parser.expr.BracketNode;
 import com.ledmington.javaparser.parser.expr.ConstantNode;
 import com.ledmington.javaparser.parser.expr.DivideNode;
@@ -21,69 +33,388 @@ import com.ledmington.javaparser.parser.expr.VariableReferenceExpression;
 
 public final class JavaParser {
 
-	private static final JavaID DEFAULT_PACKAGE = new JavaID("<package_name>");
-	private static final JavaID DEFAULT_CLASS = new JavaID("<class_name>");
+	static final JavaID DEFAULT_PACKAGE = new JavaID("<package_name>");
+	static final JavaID DEFAULT_CLASS = new JavaID("<class_name>");
+	static final JavaID DEFAULT_VARIABLE = new JavaID("<variable_name>");
+	static final JavaID DEFAULT_EXPRESSION = new JavaID("<expression>");
+
+	// how tightly each binary operator binds its operands, 0 for symbols which are not binary operators
+	private static final int[] BINDING_POWERS = new int[JavaSymbols.values().length];
+
+	static {
+		BINDING_POWERS[JavaSymbols.PLUS.ordinal()] = 1;
+		BINDING_POWERS[JavaSymbols.MINUS.ordinal()] = 1;
+		BINDING_POWERS[JavaSymbols.ASTERISK.ordinal()] = 2;
+		BINDING_POWERS[JavaSymbols.FORWARD_SLASH.ordinal()] = 2;
+	}
 
 	private JavaParser() {
 	}
 
+	/** Parses the given source, lexing it while parsing instead of tokenizing it all upfront. */
 	public static JavaNode parse(final String code) {
-		return parse(new TokenIterator(JavaLexer.tokenize(Objects.requireNonNull(code))));
+		return parse(new StreamingTokenIterator(JavaLexer.stream(Objects.requireNonNull(code))));
+	}
+
+	public static JavaNode parse(final char[] code) {
+		return parse(code, null);
+	}
+
+	/** Parses the given source, interning all its identifiers in the given table. */
+	public static JavaNode parse(final char[] code, final IdentifierTable identifiers) {
+		Objects.requireNonNull(code);
+		return parse(new StreamingTokenIterator(JavaLexer.stream(code, 0, code.length, identifiers)));
+	}
+
+	public static JavaNode parse(final TokenBuffer tokens) {
+		return parse(new TokenBufferIterator(Objects.requireNonNull(tokens)));
+	}
+
+	/**
+	 * Parses the given source, except for method bodies and field initializers, which are only skipped over. Each of
+	 * them is parsed when it is first accessed, which is when its syntax errors are thrown, if any.
+	 */
+	public static JavaNode parseLazily(final String code) {
+		return parse(new StreamingTokenIterator(JavaLexer.stream(Objects.requireNonNull(code))), null, true);
+	}
+
+	public static JavaNode parseLazily(final char[] code) {
+		Objects.requireNonNull(code);
+		return parse(new StreamingTokenIterator(JavaLexer.stream(code, 0, code.length, null)), null, true);
+	}
+
+	public static JavaNode parseLazily(final TokenBuffer tokens) {
+		return parse(new TokenBufferIterator(Objects.requireNonNull(tokens)), null, true);
+	}
+
+	/**
+	 * Parses the given tokens into a flat {@link SyntaxTree}, which is cheaper to build than the tree of
+	 * {@link JavaNode}s and can still be viewed as one, a node at a time.
+	 */
+	public static SyntaxTree parseTree(final TokenBuffer tokens) {
+		return TreeParser.parse(Objects.requireNonNull(tokens));
+	}
+
+	public static SyntaxTree parseTree(final char[] code) {
+		return parseTree(JavaLexer.lex(Objects.requireNonNull(code)));
+	}
+
+	/** Lexes and parses the given source, keeping what is needed to parse it again after an edit. */
+	public static ParsedSource parseSource(final char[] code) {
+		return parseSource(JavaLexer.lex(Objects.requireNonNull(code)));
+	}
+
+	private static ParsedSource parseSource(final TokenBuffer tokens) {
+		return new ParsedSource(tokens, parse(new TokenBufferIterator(tokens), null, false));
+	}
+
+	/**
+	 * Parses a source again after the given edit. The members which end before the edit are reused as they are, while
+	 * the others are parsed again so that their spans match the new source. The whole source is parsed again if the
+	 * edit reaches outside of the class body.
+	 */
+	public static ParsedSource reparse(final ParsedSource previous, final TextEdit edit, final char[] newCode) {
+		Objects.requireNonNull(previous);
+		final TokenBuffer tokens = JavaLexer.relex(previous.tokens(), edit, newCode);
+		final ClassBody body = reparseMembers(previous, tokens, edit);
+		return body == null ? parseSource(tokens) : new ParsedSource(tokens, previous.declaration().withBody(body));
+	}
+
+	// Parses again the members from the edit onwards, or returns null if the whole source must be parsed again. The
+	// members after the edit are not reused because their spans, and those of every node inside them, have moved.
+	private static ClassBody reparseMembers(
+			final ParsedSource previous, final TokenBuffer tokens, final TextEdit edit) {
+		final ClassBody body = previous.declaration().body();
+		if (body == null || edit.offset() < body.start() || edit.oldEnd() > body.end()) {
+			return null;
+		}
+
+		// the members which end before the edit are kept
+		final int n = body.members().size();
+		int lo = 0;
+		while (lo < n && body.boundary(lo + 1) < edit.offset()) {
+			lo++;
+		}
+		final int start = lo == 0 ? body.start() : body.boundary(lo);
+		final int end = body.end() + edit.delta();
+
+		// the body still ends where it used to only if the token which closed it is still there
+		final int next = tokens.firstTokenAt(end);
+		if (next == tokens.size()
+				|| tokens.start(next) != end
+				|| tokens.kind(next) != previous.tokens().kind(previous.tokens().firstTokenAt(body.end()))) {
+			return null;
+		}
+
+		final List<JavaNode> members = new ArrayList<>(body.members().subList(0, lo));
+		int[] starts = Arrays.copyOf(body.memberStarts(), n);
+		try {
+			final TokenIterator it = new TokenBufferIterator(tokens).range(start, end);
+			while (it.hasNext()) {
+				final int memberStart = it.offset();
+				final JavaNode member = parseMemberDeclaration(it, null, false);
+				if (members.size() == starts.length) {
+					starts = Arrays.copyOf(starts, starts.length * 2 + 1);
+				}
+				starts[members.size()] = memberStart;
+				members.add(member);
+			}
+		} catch (final SyntaxException | IllegalArgumentException e) {
+			// not necessarily an error in the whole source, for instance when a closing brace was removed
+			return null;
+		}
+		return new ClassBody(members, Arrays.copyOf(starts, members.size()), body.start(), end);
+	}
+
+	public static JavaNode parseParallel(final char[] code, final IdentifierTable identifiers) {
+		return parseParallel(code, identifiers, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parses the given source in two phases: first the skeleton of the class, which skips over method bodies and
+	 * field initializers, and then each of them as a separate task on the given pool. When either phase fails, the
+	 * source is parsed again serially, so that the error thrown is the one {@link #parse(char[])} would throw.
+	 */
+	public static JavaNode parseParallel(
+			final char[] code, final IdentifierTable identifiers, final ForkJoinPool pool) {
+		Objects.requireNonNull(code);
+		return parseParallel(
+				new StreamingTokenIterator(JavaLexer.stream(code, 0, code.length, identifiers)),
+				Objects.requireNonNull(pool));
+	}
+
+	public static JavaNode parseParallel(final TokenBuffer tokens, final ForkJoinPool pool) {
+		return parseParallel(new TokenBufferIterator(Objects.requireNonNull(tokens)), Objects.requireNonNull(pool));
+	}
+
+	private static JavaNode parseParallel(final TokenIterator it, final ForkJoinPool pool) {
+		final JavaClassDeclaration skeleton;
+		try {
+			skeleton = parse(it, null, true);
+		} catch (final SyntaxException e) {
+			// skipping over a malformed initializer does not find the same error as parsing it
+			throw parseSerially(it, e);
+		}
+
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (final FieldDeclarationNode field : skeleton.fields()) {
+			if (!field.isInitializerParsed()) {
+				tasks.add(pool.submit(field::initializer));
+			}
+		}
+		for (final MethodDeclarationNode method : skeleton.methods()) {
+			if (!method.isBodyParsed()) {
+				tasks.add(pool.submit(method::body));
+			}
+		}
+
+		// all tasks are waited for, so that none of them is still running when a failure is reported
+		RuntimeException failure = null;
+		for (final ForkJoinTask<?> task : tasks) {
+			try {
+				task.join();
+			} catch (final RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		if (failure != null) {
+			// the error a serial parse stops at is not necessarily in the task which failed
+			throw parseSerially(it, failure);
+		}
+
+		return skeleton;
+	}
+
+	/*
+	 * Parses the whole source again, serially, so that the error thrown is the one a serial parse reports. The given
+	 * failure is returned if that parse does not fail.
+	 */
+	private static RuntimeException parseSerially(final TokenIterator it, final RuntimeException failure) {
+		parse(it.range(0, it.source().length), null, false);
+		return failure;
+	}
+
+	/**
+	 * Parses the given source without stopping at the first syntax error. Each error is recorded as a diagnostic,
+	 * then the parser skips to the end of the declaration or statement which contains it and carries on. Text which
+	 * cannot be lexed is skipped as well.
+	 */
+	public static ParseResult parseRecovering(final String code) {
+		return parseRecovering(Objects.requireNonNull(code).toCharArray());
+	}
+
+	public static ParseResult parseRecovering(final char[] code) {
+		Objects.requireNonNull(code);
+		final List<Diagnostic> diagnostics = new ArrayList<>();
+		final TokenStream stream = JavaLexer.stream(
+				code, 0, code.length, null, e -> diagnostics.add(new Diagnostic(e.start(), List.of(), null)));
+		return parseRecovering(new StreamingTokenIterator(stream), diagnostics);
+	}
+
+	public static ParseResult parseRecovering(final TokenBuffer tokens) {
+		return parseRecovering(new TokenBufferIterator(Objects.requireNonNull(tokens)), new ArrayList<>());
+	}
+
+	private static ParseResult parseRecovering(final TokenIterator it, final List<Diagnostic> diagnostics) {
+		final JavaClassDeclaration declaration = parse(it, diagnostics, false);
+		// the lexer runs a few tokens ahead of the parser, and the same missing token may be reported by a member
+		// and by the class which contains it
+		return new ParseResult(
+				declaration,
+				diagnostics.stream()
+						.sorted(Comparator.comparingInt(Diagnostic::offset))
+						.distinct()
+						.toList());
+	}
+
+	/*
+	 * Runs the given parsing step. In recovering mode, that is when diagnostics is not null, a syntax error is
+	 * recorded, the tokens up to the next boundary are skipped and null is returned instead of throwing it.
+	 */
+	private static <T> T attempt(final TokenIterator it, final List<Diagnostic> diagnostics, final Supplier<T> step) {
+		if (diagnostics == null) {
+			return step.get();
+		}
+		try {
+			return step.get();
+		} catch (final UnexpectedTokenException e) {
+			diagnostics.add(new Diagnostic(e.start(), e.expected(), e.found()));
+		} catch (final TooFewTokensException e) {
+			diagnostics.add(new Diagnostic(e.start(), e.expected(), null));
+		}
+		skipToBoundary(it);
+		return null;
+	}
+
+	/*
+	 * Skips tokens up to and including the next ';', or up to the '}' closing a block opened while skipping. A '}'
+	 * closing an enclosing block is left for the caller, so that it can carry on from there.
+	 */
+	private static void skipToBoundary(final TokenIterator it) {
+		int depth = 0;
+		while (it.hasNext()) {
+			final JavaToken t = it.current();
+			if (t == JavaSymbols.RIGHT_CURLY_BRACKET) {
+				if (depth == 0) {
+					return;
+				}
+				depth--;
+				it.move();
+				if (depth == 0) {
+					return;
+				}
+				continue;
+			}
+			it.move();
+			if (t == JavaSymbols.LEFT_CURLY_BRACKET) {
+				depth++;
+			} else if (t == JavaSymbols.SEMICOLON && depth == 0) {
+				return;
+			}
+		}
+	}
+
+	private static UnexpectedTokenException unexpectedToken(final TokenIterator it, final JavaToken... expected) {
+		return new UnexpectedTokenException(List.of(expected), it.current(), it.source(), it.offset(), it.endOffset());
+	}
+
+	private static TooFewTokensException tooFewTokens(final TokenIterator it, final JavaToken... expected) {
+		return new TooFewTokensException(List.of(expected), it.source(), it.offset());
+	}
+
+	// Returns the span from the given offset up to the end of the last token moved past.
+	private static long spanFrom(final TokenIterator it, final int start) {
+		return Span.of(start, it.previousEnd());
 	}
 
 	private static void expect(final TokenIterator it, final JavaToken expected) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(expected);
+			throw tooFewTokens(it, expected);
 		}
 		if (!it.current().equals(expected)) {
-			throw new UnexpectedTokenException(expected, it.current());
+			throw unexpectedToken(it, expected);
 		}
 		it.move();
 	}
 
+	private static String parseIdentifier(final TokenIterator it, final JavaID placeholder) {
+		if (!it.hasNext()) {
+			throw tooFewTokens(it, placeholder);
+		}
+		if (it.current() instanceof JavaID(String id)) {
+			it.move();
+			return id;
+		}
+		throw unexpectedToken(it, placeholder);
+	}
+
 	private static JavaNode parse(final TokenIterator it) {
+		return parse(it, null, false);
+	}
+
+	// Parses strictly when diagnostics is null, and in recovering mode otherwise.
+	private static JavaClassDeclaration parse(
+			final TokenIterator it, final List<Diagnostic> diagnostics, final boolean lazy) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(JavaKeywords.PACKAGE, JavaKeywords.IMPORT, JavaKeywords.CLASS);
+			final TooFewTokensException e =
+					tooFewTokens(it, JavaKeywords.PACKAGE, JavaKeywords.IMPORT, JavaKeywords.CLASS);
+			if (diagnostics == null) {
+				throw e;
+			}
+			diagnostics.add(new Diagnostic(e.start(), e.expected(), null));
+			return null;
 		}
 
+		final int start = it.offset();
 		final PackageDeclarationNode packageDeclaration;
 		if (it.current() == JavaKeywords.PACKAGE) {
 			it.move();
-			packageDeclaration = parsePackageDeclaration(it);
+			packageDeclaration = Objects.requireNonNullElse(
+					attempt(it, diagnostics, () -> parsePackageDeclaration(it, start)),
+					PackageDeclarationNode.DEFAULT_PACKAGE);
 		} else {
 			packageDeclaration = PackageDeclarationNode.DEFAULT_PACKAGE;
 		}
 
 		final List<ImportDeclarationNode> imports = new ArrayList<>();
 		while (it.hasNext() && it.current() == JavaKeywords.IMPORT) {
+			final int importStart = it.offset();
 			it.move();
-			final ImportDeclarationNode imp = parseImportDeclaration(it);
-			imports.add(imp);
+			final ImportDeclarationNode imp =
+					attempt(it, diagnostics, () -> parseImportDeclaration(it, importStart));
+			if (imp != null) {
+				imports.add(imp);
+			}
 		}
 
-		if (!it.hasNext()) {
-			throw new TooFewTokensException(JavaKeywords.CLASS);
-		}
+		// the class header is the only part which cannot be skipped
+		return attempt(it, diagnostics, () -> {
+			if (!it.hasNext()) {
+				throw tooFewTokens(it, JavaKeywords.CLASS);
+			}
 
-		final List<AccessModifier> modifiers = parseAccessModifiers(it);
+			final List<AccessModifier> modifiers = parseAccessModifiers(it);
 
-		if (it.hasNext()) {
-			expect(it, JavaKeywords.CLASS);
+			if (it.hasNext()) {
+				expect(it, JavaKeywords.CLASS);
 
-			return parseClassDeclaration(it, packageDeclaration, imports, modifiers);
-		}
+				return parseClassDeclaration(it, start, packageDeclaration, imports, modifiers, diagnostics, lazy);
+			}
 
-		throw new TooFewTokensException(JavaKeywords.CLASS);
+			throw tooFewTokens(it, JavaKeywords.CLASS);
+		});
 	}
 
-	private static PackageDeclarationNode parsePackageDeclaration(final TokenIterator it) {
+	private static PackageDeclarationNode parsePackageDeclaration(final TokenIterator it, final int start) {
 		final List<String> packageNames = new ArrayList<>();
 
 		if (it.current() instanceof JavaID(String id)) {
 			packageNames.add(id);
 			it.move();
 		} else {
-			throw new UnexpectedTokenException(DEFAULT_PACKAGE, it.current());
+			throw unexpectedToken(it, DEFAULT_PACKAGE);
 		}
 
 		while (it.hasNext(2) && it.current() == JavaSymbols.DOT && it.next() instanceof JavaID(String id2)) {
@@ -94,17 +425,17 @@ public final class JavaParser {
 
 		expect(it, JavaSymbols.SEMICOLON);
 
-		return new PackageDeclarationNode(packageNames);
+		return new PackageDeclarationNode(packageNames, spanFrom(it, start));
 	}
 
-	private static ImportDeclarationNode parseImportDeclaration(final TokenIterator it) {
+	private static ImportDeclarationNode parseImportDeclaration(final TokenIterator it, final int start) {
 		final List<String> packageNames = new ArrayList<>();
 
 		if (it.current() instanceof JavaID(String id)) {
 			packageNames.add(id);
 			it.move();
 		} else {
-			throw new UnexpectedTokenException(DEFAULT_PACKAGE, it.current());
+			throw unexpectedToken(it, DEFAULT_PACKAGE);
 		}
 
 		while (it.hasNext(2) && it.current() == JavaSymbols.DOT && it.next() instanceof JavaID(String id2)) {
@@ -115,7 +446,7 @@ public final class JavaParser {
 
 		expect(it, JavaSymbols.SEMICOLON);
 
-		return new ImportDeclarationNode(packageNames);
+		return new ImportDeclarationNode(packageNames, spanFrom(it, start));
 	}
 
 	private static List<AccessModifier> parseAccessModifiers(final TokenIterator it) {
@@ -144,19 +475,23 @@ public final class JavaParser {
 		return m;
 	}
 
-	private static JavaNode parseClassDeclaration(
-			final TokenIterator it, final PackageDeclarationNode packageDeclaration,
+	private static JavaClassDeclaration parseClassDeclaration(
+			final TokenIterator it,
+			final int start,
+			final PackageDeclarationNode packageDeclaration,
 			final List<ImportDeclarationNode> imports,
-			final List<AccessModifier> modifiers) {
+			final List<AccessModifier> modifiers,
+			final List<Diagnostic> diagnostics,
+			final boolean lazy) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(DEFAULT_CLASS);
+			throw tooFewTokens(it, DEFAULT_CLASS);
 		}
 
 		final String className;
 		if (it.current() instanceof JavaID(String thisClassName)) {
 			className = thisClassName;
 		} else {
-			throw new UnexpectedTokenException(DEFAULT_CLASS, it.current());
+			throw unexpectedToken(it, DEFAULT_CLASS);
 		}
 
 		it.move();
@@ -174,65 +509,139 @@ public final class JavaParser {
 		if (it.hasNext() && it.current() == JavaKeywords.IMPLEMENTS) {
 			do {
 				it.move();
-				interfaces.add(((JavaID) it.current()).id());
-				it.move();
+				interfaces.add(parseIdentifier(it, DEFAULT_CLASS));
 			} while (it.hasNext() && it.current() == JavaSymbols.COMMA);
 		}
 
+		final int bodyStart = it.endOffset();
 		expect(it, JavaSymbols.LEFT_CURLY_BRACKET);
 
-		final List<FieldDeclarationNode> fields = new ArrayList<>();
-		final List<MethodDeclarationNode> methods = new ArrayList<>();
+		final List<JavaNode> members = new ArrayList<>();
+		int[] memberStarts = new int[16];
 		while (it.hasNext() && it.current() != JavaSymbols.RIGHT_CURLY_BRACKET) {
-			final List<AccessModifier> mods = parseAccessModifiers(it);
-			final TypeNode type = parseType(it);
-
-			final String name;
-			if (it.current() instanceof JavaID(String id)) {
-				name = id;
-			} else {
-				throw new UnexpectedTokenException(new JavaID("<field_name>"), it.current());
+			final int memberStart = it.offset();
+			final JavaNode member =
+					attempt(it, diagnostics, () -> parseMemberDeclaration(it, diagnostics, lazy));
+			if (member != null) {
+				if (members.size() == memberStarts.length) {
+					memberStarts = Arrays.copyOf(memberStarts, memberStarts.length * 2);
+				}
+				memberStarts[members.size()] = memberStart;
+				members.add(member);
 			}
-			it.move();
+		}
 
-			if (it.current() == JavaSymbols.LEFT_BRACKET) {
-				// it's a method
-				methods.add(parseMethodDeclaration(it, mods, type, name));
-			} else {
-				// it's a field
-				fields.add(parseFieldDeclaration(it, mods, type, name));
-			}
+		if (diagnostics != null && !it.hasNext()) {
+			diagnostics.add(new Diagnostic(it.offset(), List.of(JavaSymbols.RIGHT_CURLY_BRACKET), null));
 		}
+		final int bodyEnd = it.offset();
+		it.move();
 
+		return JavaClassDeclaration.parsed(
+				packageDeclaration,
+				imports,
+				modifiers,
+				className,
+				superClassName,
+				interfaces,
+				new ClassBody(members, memberStarts, bodyStart, bodyEnd),
+				spanFrom(it, start));
+	}
+
+	private static JavaNode parseMemberDeclaration(
+			final TokenIterator it, final List<Diagnostic> diagnostics, final boolean lazy) {
+		final int start = it.offset();
+		final List<AccessModifier> mods = parseAccessModifiers(it);
+		final TypeNode type = parseType(it);
+
+		final String name;
+		if (it.current() instanceof JavaID(String id)) {
+			name = id;
+		} else {
+			throw unexpectedToken(it, new JavaID("<field_name>"));
+		}
 		it.move();
 
-		return new JavaClassDeclaration(
-				packageDeclaration, imports, modifiers, className, superClassName, interfaces, fields, methods);
+		if (it.current() == JavaSymbols.LEFT_BRACKET) {
+			// it's a method
+			return parseMethodDeclaration(it, start, mods, type, name, diagnostics, lazy);
+		}
+		// it's a field
+		return parseFieldDeclaration(it, start, mods, type, name, lazy);
 	}
 
-	private static FieldDeclarationNode parseFieldDeclaration(final TokenIterator it,
-			final List<AccessModifier> mods, final TypeNode type, final String name) {
+	private static FieldDeclarationNode parseFieldDeclaration(final TokenIterator it, final int start,
+			final List<AccessModifier> mods, final TypeNode type, final String name, final boolean lazy) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(JavaSymbols.EQUAL, JavaSymbols.SEMICOLON);
+			throw tooFewTokens(it, JavaSymbols.EQUAL, JavaSymbols.SEMICOLON);
 		}
 
 		if (it.current() == JavaSymbols.SEMICOLON) {
 			it.move();
 			// fields declaration without initializer
-			return new FieldDeclarationNode(mods, type, name);
+			return new FieldDeclarationNode(mods, type, name, null, spanFrom(it, start));
 		}
 
 		expect(it, JavaSymbols.EQUAL);
 
+		if (lazy) {
+			final int initializerStart = it.offset();
+			// the ';' is kept in the range, so that the initializer fails as it would when parsed in place
+			final int initializerEnd = skipToSemicolon(it) + 1;
+			return FieldDeclarationNode.withLazyInitializer(
+					mods,
+					type,
+					name,
+					() -> parseInitializer(it.range(initializerStart, initializerEnd)),
+					spanFrom(it, start));
+		}
+
 		final ExpressionNode expression = parseExpression(it);
 
 		expect(it, JavaSymbols.SEMICOLON);
 
-		return new FieldDeclarationNode(mods, type, name, expression);
+		return new FieldDeclarationNode(mods, type, name, expression, spanFrom(it, start));
 	}
 
-	private static MethodDeclarationNode parseMethodDeclaration(final TokenIterator it,
-			final List<AccessModifier> mods, final TypeNode type, final String name) {
+	// Moves past the next ';' which is not inside a block and returns its offset.
+	private static int skipToSemicolon(final TokenIterator it) {
+		int depth = 0;
+		while (it.hasNext()) {
+			final JavaToken t = it.current();
+			if (t == JavaSymbols.LEFT_CURLY_BRACKET) {
+				depth++;
+			} else if (t == JavaSymbols.RIGHT_CURLY_BRACKET) {
+				if (depth == 0) {
+					throw unexpectedToken(it, JavaSymbols.SEMICOLON);
+				}
+				depth--;
+			} else if (t == JavaSymbols.SEMICOLON && depth == 0) {
+				final int semicolon = it.offset();
+				it.move();
+				return semicolon;
+			}
+			it.move();
+		}
+		throw tooFewTokens(it, JavaSymbols.SEMICOLON);
+	}
+
+	// Parses an initializer followed by the ';' which ends the given tokens.
+	private static ExpressionNode parseInitializer(final TokenIterator it) {
+		final ExpressionNode expression = parseExpression(it);
+		expect(it, JavaSymbols.SEMICOLON);
+		return expression;
+	}
+
+	// Parses a method body followed by the '}' which ends the given tokens.
+	private static List<StatementNode> parseBody(final TokenIterator it) {
+		final List<StatementNode> body = parseStatements(it, null);
+		expect(it, JavaSymbols.RIGHT_CURLY_BRACKET);
+		return body;
+	}
+
+	private static MethodDeclarationNode parseMethodDeclaration(final TokenIterator it, final int start,
+			final List<AccessModifier> mods, final TypeNode type, final String name,
+			final List<Diagnostic> diagnostics, final boolean lazy) {
 
 		expect(it, JavaSymbols.LEFT_BRACKET);
 
@@ -250,26 +659,60 @@ public final class JavaParser {
 
 		if (it.current() == JavaSymbols.SEMICOLON) {
 			it.move();
-			return new MethodDeclarationNode(mods, type, name, parameters, null);
+			return new MethodDeclarationNode(mods, type, name, parameters, null, spanFrom(it, start));
+		}
+
+		if (lazy) {
+			if (!it.hasNext()) {
+				throw tooFewTokens(it, JavaSymbols.LEFT_CURLY_BRACKET);
+			}
+			if (it.current() != JavaSymbols.LEFT_CURLY_BRACKET) {
+				throw unexpectedToken(it, JavaSymbols.LEFT_CURLY_BRACKET);
+			}
+			final int bodyStart = it.endOffset();
+			// the '}' is kept in the range, so that the body fails as it would when parsed in place
+			final int bodyEnd = it.skipBlock() + 1;
+			return MethodDeclarationNode.withLazyBody(
+					mods,
+					type,
+					name,
+					parameters,
+					() -> parseBody(it.range(bodyStart, bodyEnd)),
+					spanFrom(it, start));
 		}
 
 		expect(it, JavaSymbols.LEFT_CURLY_BRACKET);
 
+		final List<StatementNode> body = parseStatements(it, diagnostics);
+
+		expect(it, JavaSymbols.RIGHT_CURLY_BRACKET);
+
+		return new MethodDeclarationNode(mods, type, name, parameters, body, spanFrom(it, start));
+	}
+
+	// Parses statements up to the '}' closing the enclosing block, or up to the end of the tokens.
+	private static List<StatementNode> parseStatements(final TokenIterator it, final List<Diagnostic> diagnostics) {
 		final List<StatementNode> body = new ArrayList<>();
 		while (it.hasNext() && it.current() != JavaSymbols.RIGHT_CURLY_BRACKET) {
-			final StatementNode s = parseStatement(it);
-			if (s == null) {
+			final StatementNode s = attempt(it, diagnostics, () -> {
+				final StatementNode parsed = parseStatement(it);
+				if (parsed == null && diagnostics != null) {
+					// a statement which is not supported yet
+					throw unexpectedToken(it);
+				}
+				return parsed;
+			});
+			if (s != null) {
+				body.add(s);
+			} else if (diagnostics == null) {
 				throw new IllegalArgumentException("Parsed statement was null");
 			}
-			body.add(s);
 		}
-
-		expect(it, JavaSymbols.RIGHT_CURLY_BRACKET);
-
-		return new MethodDeclarationNode(mods, type, name, parameters, body);
+		return body;
 	}
 
 	private static MethodParameterDeclaration parseMethodParameter(final TokenIterator it) {
+		final int start = it.offset();
 		boolean isFinal = false;
 		if (it.current() == JavaKeywords.FINAL) {
 			isFinal = true;
@@ -279,38 +722,37 @@ public final class JavaParser {
 
 		final TypeNode type = parseType(it);
 
-		final String name = ((JavaID) it.current()).id();
-		it.move();
+		final String name = parseIdentifier(it, DEFAULT_VARIABLE);
 
-		return new MethodParameterDeclaration(isFinal, type, name);
+		return new MethodParameterDeclaration(isFinal, type, name, spanFrom(it, start));
 	}
 
 	private static StatementNode parseStatement(final TokenIterator it) {
+		final int start = it.offset();
 		if (it.current() == JavaKeywords.FINAL) {
 			it.move();
 			final TypeNode type = parseType(it);
-			final String name = ((JavaID) it.current()).id();
-			it.move();
+			final String name = parseIdentifier(it, DEFAULT_VARIABLE);
 			if (it.current() == JavaSymbols.EQUAL) {
 				it.move();
 				final ExpressionNode expr = parseExpression(it);
 				expect(it, JavaSymbols.SEMICOLON);
-				return new VariableDeclaration(true, type, name, expr);
+				return new VariableDeclaration(true, type, name, expr, spanFrom(it, start));
 			}
 			expect(it, JavaSymbols.SEMICOLON);
-			return new VariableDeclaration(true, type, name, null);
+			return new VariableDeclaration(true, type, name, null, spanFrom(it, start));
 		} else if (it.current() == JavaKeywords.RETURN) {
 			it.move();
 			final ExpressionNode expr = parseExpression(it);
 			expect(it, JavaSymbols.SEMICOLON);
-			return new ReturnStatement(expr);
+			return new ReturnStatement(expr, spanFrom(it, start));
 		} else if (it.current() == JavaSymbols.SEMICOLON) {
 			it.move();
-			return new EmptyStatement();
+			return new EmptyStatement(spanFrom(it, start));
 		} else if (it.current() instanceof JavaID(String id)) {
 			// method invocation
 			it.move();
-			ExpressionNode expr = new VariableReferenceExpression(id);
+			ExpressionNode expr = new VariableReferenceExpression(id, spanFrom(it, start));
 			while (it.current() == JavaSymbols.DOT && it.next() instanceof JavaID(String id1)) {
 				it.move();
 				it.move();
@@ -324,10 +766,10 @@ public final class JavaParser {
 						callParameters.add(parseExpression(it));
 					}
 					expect(it, JavaSymbols.RIGHT_BRACKET);
-					expr = new MethodInvocationExpression(expr, id1, callParameters);
+					expr = new MethodInvocationExpression(expr, id1, callParameters, spanFrom(it, start));
 				} else {
 					// field access
-					expr = new FieldAccessExpression(expr, id1);
+					expr = new FieldAccessExpression(expr, id1, spanFrom(it, start));
 				}
 			}
 
@@ -335,10 +777,10 @@ public final class JavaParser {
 				expect(it, JavaSymbols.EQUAL);
 				final ExpressionNode value = parseExpression(it);
 				expect(it, JavaSymbols.SEMICOLON);
-				return new FieldAssignment(fae, value);
+				return new FieldAssignment(fae, value, spanFrom(it, start));
 			} else if (expr instanceof MethodInvocationExpression mie) {
 				expect(it, JavaSymbols.SEMICOLON);
-				return new MethodInvocationStatement(mie);
+				return new MethodInvocationStatement(mie, spanFrom(it, start));
 			}
 		}
 
@@ -347,10 +789,11 @@ public final class JavaParser {
 
 	private static TypeNode parseType(final TokenIterator it) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(JavaKeywords.VOID, JavaKeywords.BYTE, JavaKeywords.CHAR, JavaKeywords.SHORT,
+			throw tooFewTokens(it, JavaKeywords.VOID, JavaKeywords.BYTE, JavaKeywords.CHAR, JavaKeywords.SHORT,
 					JavaKeywords.INT, JavaKeywords.FLOAT, JavaKeywords.LONG, JavaKeywords.DOUBLE);
 		}
 
+		final int start = it.offset();
 		TypeNode type = switch (it.current()) {
 			case JavaKeywords.VOID -> {
 				it.move();
@@ -390,18 +833,19 @@ public final class JavaParser {
 		while (it.current() == JavaSymbols.LEFT_SQUARE_BRACKET) {
 			it.move();
 			expect(it, JavaSymbols.RIGHT_SQUARE_BRACKET);
-			type = new ArrayType(type);
+			type = new ArrayType(type, spanFrom(it, start));
 		}
 
 		return type;
 	}
 
 	private static ReferenceTypeNode parseReferenceType(final TokenIterator it) {
+		final int start = it.offset();
 		final String className;
 		if (it.current() instanceof JavaID(String referenceType)) {
 			className = referenceType;
 		} else {
-			throw new UnexpectedTokenException(new JavaID("<type_name>"), it.current());
+			throw unexpectedToken(it, new JavaID("<type_name>"));
 		}
 		it.move();
 
@@ -417,78 +861,100 @@ public final class JavaParser {
 
 			expect(it, JavaSymbols.RIGHT_ANGLE_BRACKET);
 
-			return new GenericReferenceTypeNode(className, innerTypes);
+			return new GenericReferenceTypeNode(className, innerTypes, spanFrom(it, start));
 		}
 
-		return new ReferenceTypeNode(className);
+		return new ReferenceTypeNode(className, spanFrom(it, start));
 	}
 
 	private static ExpressionNode parseExpression(final TokenIterator it) {
 		if (!it.hasNext()) {
-			throw new TooFewTokensException(JavaSymbols.PLUS, JavaSymbols.MINUS, JavaSymbols.ASTERISK,
+			throw tooFewTokens(it, JavaSymbols.PLUS, JavaSymbols.MINUS, JavaSymbols.ASTERISK,
 					JavaSymbols.FORWARD_SLASH);
 		}
 
-		ExpressionNode expr = parseMinusExpression(it);
-
-		while (it.current() == JavaSymbols.PLUS) {
-			it.move();
-			final ExpressionNode rhs = parseExpression(it);
-			expr = new PlusNode(expr, rhs);
-		}
-
-		return expr;
-	}
+		// Precedence climbing with explicit stacks, so that neither long chains nor deeply nested brackets take
+		// stack frames. Open brackets are kept on the operator stack as markers below which no operator is reduced.
+		final Deque<ExpressionNode> operands = new ArrayDeque<>();
+		final Deque<JavaSymbols> operators = new ArrayDeque<>();
+		int openBrackets = 0;
+		// where each open bracket starts, allocated only if there are any
+		int[] bracketStarts = null;
+
+		while (true) {
+			while (it.hasNext() && it.current() == JavaSymbols.LEFT_BRACKET) {
+				if (bracketStarts == null) {
+					bracketStarts = new int[8];
+				} else if (openBrackets == bracketStarts.length) {
+					bracketStarts = Arrays.copyOf(bracketStarts, bracketStarts.length * 2);
+				}
+				bracketStarts[openBrackets] = it.offset();
+				it.move();
+				operators.push(JavaSymbols.LEFT_BRACKET);
+				openBrackets++;
+			}
+			operands.push(parseSimpleExpression(it));
 
-	private static ExpressionNode parseMinusExpression(final TokenIterator it) {
-		ExpressionNode expr = parseMultiplyExpression(it);
+			while (openBrackets > 0 && it.hasNext() && it.current() == JavaSymbols.RIGHT_BRACKET) {
+				it.move();
+				while (operators.peek() != JavaSymbols.LEFT_BRACKET) {
+					reduce(operands, operators.pop());
+				}
+				operators.pop();
+				openBrackets--;
+				operands.push(new BracketNode(operands.pop(), spanFrom(it, bracketStarts[openBrackets])));
+			}
 
-		while (it.current() == JavaSymbols.MINUS) {
+			if (!(it.hasNext() && it.current() instanceof JavaSymbols op && BINDING_POWERS[op.ordinal()] > 0)) {
+				break;
+			}
 			it.move();
-			final ExpressionNode rhs = parseExpression(it);
-			expr = new MinusNode(expr, rhs);
+			// operators are left-associative: the ones already on the stack which bind as tightly go first
+			while (!operators.isEmpty()
+					&& operators.peek() != JavaSymbols.LEFT_BRACKET
+					&& BINDING_POWERS[operators.peek().ordinal()] >= BINDING_POWERS[op.ordinal()]) {
+				reduce(operands, operators.pop());
+			}
+			operators.push(op);
 		}
 
-		return expr;
-	}
-
-	private static ExpressionNode parseMultiplyExpression(final TokenIterator it) {
-		ExpressionNode expr = parseDivideExpression(it);
-
-		while (it.current() == JavaSymbols.ASTERISK) {
-			it.move();
-			final ExpressionNode rhs = parseExpression(it);
-			expr = new MultiplyNode(expr, rhs);
+		if (openBrackets > 0) {
+			expect(it, JavaSymbols.RIGHT_BRACKET);
 		}
-
-		return expr;
-	}
-
-	private static ExpressionNode parseDivideExpression(final TokenIterator it) {
-		ExpressionNode expr = parseSimpleExpression(it);
-
-		while (it.current() == JavaSymbols.FORWARD_SLASH) {
-			it.move();
-			final ExpressionNode rhs = parseExpression(it);
-			expr = new DivideNode(expr, rhs);
+		while (!operators.isEmpty()) {
+			reduce(operands, operators.pop());
 		}
+		return operands.pop();
+	}
 
-		return expr;
+	private static void reduce(final Deque<ExpressionNode> operands, final JavaSymbols op) {
+		final ExpressionNode rhs = operands.pop();
+		final ExpressionNode lhs = operands.pop();
+		operands.push(
+				switch (op) {
+					case PLUS -> new PlusNode(lhs, rhs);
+					case MINUS -> new MinusNode(lhs, rhs);
+					case ASTERISK -> new MultiplyNode(lhs, rhs);
+					case FORWARD_SLASH -> new DivideNode(lhs, rhs);
+					default -> throw new AssertionError(String.format("No node for binary operator %s.", op));
+				});
 	}
 
+	// Parses a single operand, without brackets around.
 	private static ExpressionNode parseSimpleExpression(final TokenIterator it) {
+		if (!it.hasNext()) {
+			throw tooFewTokens(it, DEFAULT_EXPRESSION);
+		}
+		final long span = Span.of(it.offset(), it.endOffset());
 		if (it.current() instanceof IntegerLiteral il) {
 			it.move();
-			return new ConstantNode(il.value(), il.declaredAsLong());
+			return il.fitsInLong()
+					? new ConstantNode(il.longValue(), il.declaredAsLong(), il.spelling(), span)
+					: new ConstantNode(il.value(), il.declaredAsLong(), il.spelling(), span);
 		} else if (it.current() instanceof JavaID(String id)) {
 			it.move();
-			return new VariableReferenceExpression(id);
-		} else if (it.current() == JavaSymbols.LEFT_BRACKET) {
-			it.move();
-			final ExpressionNode expr = parseExpression(it);
-			expect(it, JavaSymbols.RIGHT_BRACKET);
-			return new BracketNode(expr);
+			return new VariableReferenceExpression(id, span);
 		}
-		return parseExpression(it);
+		throw unexpectedToken(it);
 	}
 }
@@ -0,0 +1,42 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/** A value which is computed the first time it is needed, only once even if more threads ask for it together. */
+final class Lazy<T> {
+
+	private T value;
+	// written after value, so that seeing it null means value is set
+	private volatile Supplier<? extends T> supplier;
+
+	private Lazy(final T value, final Supplier<? extends T> supplier) {
+		this.value = value;
+		this.supplier = supplier;
+	}
+
+	static <T> Lazy<T> of(final T value) {
+		return new Lazy<>(value, null);
+	}
+
+	static <T> Lazy<T> computedBy(final Supplier<? extends T> supplier) {
+		return new Lazy<>(null, Objects.requireNonNull(supplier));
+	}
+
+	T get() {
+		if (supplier != null) {
+			synchronized (this) {
+				final Supplier<? extends T> s = supplier;
+				if (s != null) {
+					value = s.get();
+					supplier = null;
+				}
+			}
+		}
+		return value;
+	}
+
+	boolean isComputed() {
+		return supplier == null;
+	}
+}
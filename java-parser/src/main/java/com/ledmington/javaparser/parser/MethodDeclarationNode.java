@@ -2,6 +2,7 @@ package com.ledmington.javaparser.parser;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class MethodDeclarationNode implements JavaNode {
@@ -10,7 +11,8 @@ public final class MethodDeclarationNode implements JavaNode {
 	private final TypeNode returnType;
 	private final String name;
 	private final List<MethodParameterDeclaration> parameters;
-	private final List<StatementNode> body;
+	private final Lazy<List<StatementNode>> body;
+	private final long span;
 
 	public MethodDeclarationNode(
 			final List<AccessModifier> modifiers,
@@ -18,6 +20,26 @@ public final class MethodDeclarationNode implements JavaNode {
 			final String name,
 			final List<MethodParameterDeclaration> parameters,
 			final List<StatementNode> body) {
+		this(modifiers, returnType, name, parameters, body, Span.UNKNOWN);
+	}
+
+	public MethodDeclarationNode(
+			final List<AccessModifier> modifiers,
+			final TypeNode returnType,
+			final String name,
+			final List<MethodParameterDeclaration> parameters,
+			final List<StatementNode> body,
+			final long span) {
+		this(modifiers, returnType, name, parameters, Lazy.of(checkBody(body)), span);
+	}
+
+	private MethodDeclarationNode(
+			final List<AccessModifier> modifiers,
+			final TypeNode returnType,
+			final String name,
+			final List<MethodParameterDeclaration> parameters,
+			final Lazy<List<StatementNode>> body,
+			final long span) {
 		this.modifiers = Objects.requireNonNull(modifiers);
 		for (final AccessModifier am : modifiers) {
 			// TODO: check if the access modifiers are valid for a field declaration
@@ -33,19 +55,57 @@ public final class MethodDeclarationNode implements JavaNode {
 			Objects.requireNonNull(mpd);
 		}
 		this.body = body;
+		this.span = span;
+	}
+
+	/** Creates a method whose body is parsed by the given function only when it is first accessed. */
+	static MethodDeclarationNode withLazyBody(
+			final List<AccessModifier> modifiers,
+			final TypeNode returnType,
+			final String name,
+			final List<MethodParameterDeclaration> parameters,
+			final Supplier<List<StatementNode>> bodyParser,
+			final long span) {
+		Objects.requireNonNull(bodyParser);
+		return new MethodDeclarationNode(
+				modifiers, returnType, name, parameters, Lazy.computedBy(() -> checkBody(bodyParser.get())), span);
+	}
+
+	private static List<StatementNode> checkBody(final List<StatementNode> body) {
 		if (body != null) {
 			for (final StatementNode sn : body) {
 				Objects.requireNonNull(sn);
 			}
 		}
+		return body;
+	}
+
+	@Override
+	public long span() {
+		return span;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	/** Returns the statements of the body, parsing them if needed, or null if the method has no body. */
+	public List<StatementNode> body() {
+		return body.get();
+	}
+
+	/** Returns false while the body is still waiting to be parsed. */
+	public boolean isBodyParsed() {
+		return body.isComputed();
 	}
 
 	@Override
 	public String toJava() {
+		final List<StatementNode> statements = body();
 		return modifiers.stream().map(JavaNode::toJava).collect(Collectors.joining(" ")) + " " + returnType.toJava()
 				+ " " + name + "(" + parameters.stream().map(JavaNode::toJava).collect(Collectors.joining(",")) + ")"
-				+ (body == null
+				+ (statements == null
 						? ";"
-						: "{" + body.stream().map(JavaNode::toJava).collect(Collectors.joining("\n")) + "}");
+						: "{" + statements.stream().map(JavaNode::toJava).collect(Collectors.joining("\n")) + "}");
 	}
 }
@@ -11,9 +11,15 @@ public final class MethodInvocationExpression implements ExpressionNode {
 	private final ExpressionNode expr;
 	private final String id;
 	private final List<ExpressionNode> callParameters;
+	private final long span;
 
 	public MethodInvocationExpression(
 			final ExpressionNode expr, final String id, final List<ExpressionNode> callParameters) {
+		this(expr, id, callParameters, Span.UNKNOWN);
+	}
+
+	public MethodInvocationExpression(
+			final ExpressionNode expr, final String id, final List<ExpressionNode> callParameters, final long span) {
 		this.expr = Objects.requireNonNull(expr);
 		this.id = Objects.requireNonNull(id);
 		if (id.isBlank()) {
@@ -23,6 +29,12 @@ public final class MethodInvocationExpression implements ExpressionNode {
 		for (final ExpressionNode en : callParameters) {
 			Objects.requireNonNull(en);
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
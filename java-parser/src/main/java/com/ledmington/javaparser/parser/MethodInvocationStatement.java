@@ -5,9 +5,20 @@ import java.util.Objects;
 public final class MethodInvocationStatement implements StatementNode {
 
 	private final MethodInvocationExpression mie;
+	private final long span;
 
 	public MethodInvocationStatement(final MethodInvocationExpression mie) {
+		this(mie, Span.UNKNOWN);
+	}
+
+	public MethodInvocationStatement(final MethodInvocationExpression mie, final long span) {
 		this.mie = Objects.requireNonNull(mie);
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
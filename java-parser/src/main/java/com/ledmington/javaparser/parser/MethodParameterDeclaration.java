@@ -7,14 +7,25 @@ public final class MethodParameterDeclaration implements JavaNode {
 	private final boolean isFinal;
 	private final TypeNode type;
 	private final String name;
+	private final long span;
 
 	public MethodParameterDeclaration(final boolean isFinal, final TypeNode type, final String name) {
+		this(isFinal, type, name, Span.UNKNOWN);
+	}
+
+	public MethodParameterDeclaration(final boolean isFinal, final TypeNode type, final String name, final long span) {
 		this.isFinal = isFinal;
 		this.type = Objects.requireNonNull(type);
 		this.name = Objects.requireNonNull(name);
 		if (name.isBlank()) {
 			throw new IllegalArgumentException(String.format("Invalid method parameter name '%s'", name));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
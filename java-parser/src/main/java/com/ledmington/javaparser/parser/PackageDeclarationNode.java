@@ -8,14 +8,20 @@ public final class PackageDeclarationNode implements JavaNode {
 	public static final PackageDeclarationNode DEFAULT_PACKAGE = new PackageDeclarationNode("<default_package>");
 
 	private final String[] packages;
+	private final long span;
 
 	public PackageDeclarationNode(final String basePackage, final String... subPackages) {
 		this.packages = new String[Objects.requireNonNull(subPackages).length + 1];
 		this.packages[0] = Objects.requireNonNull(basePackage);
 		System.arraycopy(subPackages, 0, this.packages, 1, subPackages.length);
+		this.span = Span.UNKNOWN;
 	}
 
 	public PackageDeclarationNode(final List<String> packageNames) {
+		this(packageNames, Span.UNKNOWN);
+	}
+
+	public PackageDeclarationNode(final List<String> packageNames, final long span) {
 		Objects.requireNonNull(packageNames);
 		if (packageNames.isEmpty()) {
 			throw new IllegalArgumentException("Cannot have a package declaration with no package names");
@@ -24,6 +30,12 @@ public final class PackageDeclarationNode implements JavaNode {
 		for (int i = 0; i < packageNames.size(); i++) {
 			this.packages[i] = Objects.requireNonNull(packageNames.get(i));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
@@ -0,0 +1,20 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The outcome of parsing in recovering mode: the class declaration, with the members which could not be parsed left
+ * out, together with the syntax errors found. The declaration is null when not even the class header could be
+ * parsed, for instance when the source is empty.
+ */
+public record ParseResult(JavaClassDeclaration declaration, List<Diagnostic> diagnostics) {
+
+	public ParseResult {
+		diagnostics = List.copyOf(Objects.requireNonNull(diagnostics));
+	}
+
+	public boolean hasErrors() {
+		return !diagnostics.isEmpty();
+	}
+}
@@ -0,0 +1,14 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.TokenBuffer;
+
+/** A parsed source together with its tokens, which is what reparsing it after an edit starts from. */
+public record ParsedSource(TokenBuffer tokens, JavaClassDeclaration declaration) {
+
+	public ParsedSource {
+		Objects.requireNonNull(tokens);
+		Objects.requireNonNull(declaration);
+	}
+}
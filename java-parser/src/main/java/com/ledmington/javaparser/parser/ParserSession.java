@@ -0,0 +1,69 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.IdentifierTable;
+import com.ledmington.javaparser.lexer.JavaLexer;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+
+/**
+ * Lexes and parses one source after another, reusing the same {@link TokenBuffer}, {@link SyntaxTree} and scratch
+ * stacks for all of them. Once they have grown to fit the largest source seen, a file is parsed with almost no
+ * allocation besides the nodes asked for.
+ *
+ * <p>The buffer and the tree returned for a source are only valid until the next one is parsed, or until the session
+ * is reset. A session must not be shared between threads: {@link #current()} keeps one for each of them.
+ */
+public final class ParserSession {
+
+	private static final ThreadLocal<ParserSession> SESSIONS = ThreadLocal.withInitial(ParserSession::new);
+
+	private final IdentifierTable identifiers;
+	private final TreeParser parser = new TreeParser();
+	private TokenBuffer tokens = null;
+	private SyntaxTree tree = null;
+
+	public ParserSession() {
+		this(null);
+	}
+
+	/** Creates a session which interns all identifiers in the given table, which may be shared with others. */
+	public ParserSession(final IdentifierTable identifiers) {
+		this.identifiers = identifiers;
+	}
+
+	/** Returns the session of the calling thread, creating it the first time. */
+	public static ParserSession current() {
+		return SESSIONS.get();
+	}
+
+	/** Lexes the given source into the buffer of this session. */
+	public TokenBuffer lex(final char[] code) {
+		Objects.requireNonNull(code);
+		tokens = tokens == null ? JavaLexer.lex(code, identifiers) : JavaLexer.lex(code, identifiers, tokens);
+		return tokens;
+	}
+
+	/** Lexes and parses the given source into the syntax tree of this session. */
+	public SyntaxTree parseTree(final char[] code) {
+		final TokenBuffer t = lex(code);
+		// a rough guess, most nodes span a couple of tokens
+		tree = parser.parse(t, tree == null ? new SyntaxTree(t, t.size() / 2) : tree);
+		return tree;
+	}
+
+	/** Lexes the given source into the buffer of this session, and parses it into a tree of {@link JavaNode}s. */
+	public JavaNode parse(final char[] code) {
+		return JavaParser.parse(lex(code));
+	}
+
+	/** Lets go of the last source parsed, keeping only the arrays which have been grown so far. */
+	public void reset() {
+		if (tokens != null) {
+			tokens.clear();
+		}
+		if (tree != null) {
+			tree.reset(tokens);
+		}
+	}
+}
@@ -5,12 +5,23 @@ import java.util.Objects;
 public class ReferenceTypeNode implements TypeNode {
 
 	protected final String className;
+	private final long span;
 
 	public ReferenceTypeNode(final String className) {
+		this(className, Span.UNKNOWN);
+	}
+
+	public ReferenceTypeNode(final String className, final long span) {
 		this.className = Objects.requireNonNull(className);
 		if (className.isBlank()) {
 			throw new IllegalArgumentException(String.format("Invalid type name '%s'", className));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
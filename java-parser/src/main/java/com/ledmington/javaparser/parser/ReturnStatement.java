@@ -7,9 +7,20 @@ import com.ledmington.javaparser.parser.expr.ExpressionNode;
 public final class ReturnStatement implements StatementNode {
 
 	private final ExpressionNode expr;
+	private final long span;
 
 	public ReturnStatement(final ExpressionNode expr) {
+		this(expr, Span.UNKNOWN);
+	}
+
+	public ReturnStatement(final ExpressionNode expr, final long span) {
 		this.expr = Objects.requireNonNull(expr);
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
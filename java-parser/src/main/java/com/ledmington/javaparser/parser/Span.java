@@ -0,0 +1,37 @@
+package com.ledmington.javaparser.parser;
+
+/**
+ * Packs the span [start; end) of chars that a node covers in its source into a single long, with start in the upper
+ * 32 bits and end in the lower ones, so that nodes record where they come from without allocating anything.
+ */
+public final class Span {
+
+	/** The span of nodes which do not come from a source, whose start and end are both -1. */
+	public static final long UNKNOWN = -1L;
+
+	private Span() {}
+
+	/** Returns the span [start; end), or {@link #UNKNOWN} if either of them is negative. */
+	public static long of(final int start, final int end) {
+		if (start < 0 || end < 0) {
+			return UNKNOWN;
+		}
+		if (start > end) {
+			throw new IllegalArgumentException(String.format("Invalid span [%,d; %,d).", start, end));
+		}
+		return ((long) start << 32) | end;
+	}
+
+	/** Returns the span from the start of the first one to the end of the second one, if both are known. */
+	public static long join(final long first, final long second) {
+		return first == UNKNOWN || second == UNKNOWN ? UNKNOWN : of(start(first), end(second));
+	}
+
+	public static int start(final long span) {
+		return (int) (span >> 32);
+	}
+
+	public static int end(final long span) {
+		return (int) span;
+	}
+}
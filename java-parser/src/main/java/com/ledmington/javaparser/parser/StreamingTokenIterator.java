@@ -0,0 +1,83 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.JavaSymbols;
+import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+import com.ledmington.javaparser.lexer.TokenStream;
+
+/** A {@link TokenIterator} which lexes tokens only as the parser reaches them. */
+public final class StreamingTokenIterator implements TokenIterator {
+
+	private static final int LEFT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_CURLY_BRACKET);
+	private static final int RIGHT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_CURLY_BRACKET);
+
+	private final TokenStream stream;
+
+	public StreamingTokenIterator(final TokenStream stream) {
+		this.stream = Objects.requireNonNull(stream);
+	}
+
+	@Override
+	public boolean hasNext(final int step) {
+		return stream.hasNext(step);
+	}
+
+	@Override
+	public JavaToken current(final int step) {
+		if (!stream.hasNext(step + 1)) {
+			throw new TooFewTokensException(List.of(), source(), stream.sourceEnd());
+		}
+		return stream.token(step);
+	}
+
+	@Override
+	public void move() {
+		stream.move();
+	}
+
+	@Override
+	public int offset() {
+		return stream.hasNext() ? stream.start(0) : stream.sourceEnd();
+	}
+
+	@Override
+	public int endOffset() {
+		return stream.hasNext() ? stream.end(0) : stream.sourceEnd();
+	}
+
+	@Override
+	public int previousEnd() {
+		final int end = stream.previousEnd();
+		return end < 0 ? offset() : end;
+	}
+
+	@Override
+	public char[] source() {
+		return stream.source();
+	}
+
+	@Override
+	public int skipBlock() {
+		// only kinds are compared, so that no token is materialized
+		int depth = 0;
+		for (; stream.hasNext(); stream.move()) {
+			final int kind = stream.kind(0);
+			if (kind == LEFT_CURLY_BRACKET) {
+				depth++;
+			} else if (kind == RIGHT_CURLY_BRACKET && --depth == 0) {
+				final int close = stream.start(0);
+				stream.move();
+				return close;
+			}
+		}
+		throw new TooFewTokensException(List.of(JavaSymbols.RIGHT_CURLY_BRACKET), source(), offset());
+	}
+
+	@Override
+	public TokenIterator range(final int start, final int end) {
+		return new StreamingTokenIterator(stream.range(start, end));
+	}
+}
@@ -0,0 +1,64 @@
+package com.ledmington.javaparser.parser;
+
+/**
+ * The kinds of node in a {@link SyntaxTree}. The comment on each one lists its children, in order, where a trailing
+ * '?' marks an optional child and a '*' a repeated one.
+ */
+public enum SyntaxKind {
+	/** PACKAGE_DECLARATION?, IMPORT_DECLARATION*, MODIFIER*, NAME, SUPER_CLASS?, INTERFACE*, then the members. */
+	CLASS_DECLARATION,
+	/** NAME* */
+	PACKAGE_DECLARATION,
+	/** NAME* */
+	IMPORT_DECLARATION,
+	/** A single modifier keyword, no children. */
+	MODIFIER,
+	/** A single identifier, no children. */
+	NAME,
+	/** A single identifier, no children. */
+	SUPER_CLASS,
+	/** A single identifier, no children. */
+	INTERFACE,
+	/** MODIFIER*, type, NAME, expression? */
+	FIELD_DECLARATION,
+	/** MODIFIER*, type, NAME, PARAMETER*, BLOCK? */
+	METHOD_DECLARATION,
+	/** MODIFIER?, type, NAME */
+	PARAMETER,
+	/** statement* */
+	BLOCK,
+	/** A single primitive type keyword, no children. */
+	PRIMITIVE_TYPE,
+	/** REFERENCE_TYPE*, which are the type arguments, if any. */
+	REFERENCE_TYPE,
+	/** type */
+	ARRAY_TYPE,
+	/** MODIFIER, type, NAME, expression? */
+	VARIABLE_DECLARATION,
+	/** expression */
+	RETURN_STATEMENT,
+	/** No children. */
+	EMPTY_STATEMENT,
+	/** FIELD_ACCESS, expression */
+	FIELD_ASSIGNMENT,
+	/** METHOD_INVOCATION */
+	METHOD_INVOCATION_STATEMENT,
+	/** A single integer literal, no children. */
+	CONSTANT,
+	/** A single identifier, no children. */
+	VARIABLE_REFERENCE,
+	/** expression */
+	BRACKETS,
+	/** expression, expression */
+	PLUS,
+	/** expression, expression */
+	MINUS,
+	/** expression, expression */
+	MULTIPLY,
+	/** expression, expression */
+	DIVIDE,
+	/** expression, NAME */
+	FIELD_ACCESS,
+	/** expression, NAME, expression* */
+	METHOD_INVOCATION
+}
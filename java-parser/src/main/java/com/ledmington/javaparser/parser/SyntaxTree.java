@@ -0,0 +1,354 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.IntegerLiteral;
+import com.ledmington.javaparser.lexer.JavaID;
+import com.ledmington.javaparser.lexer.JavaKeywords;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+import com.ledmington.javaparser.parser.expr.BracketNode;
+import com.ledmington.javaparser.parser.expr.ConstantNode;
+import com.ledmington.javaparser.parser.expr.DivideNode;
+import com.ledmington.javaparser.parser.expr.ExpressionNode;
+import com.ledmington.javaparser.parser.expr.MinusNode;
+import com.ledmington.javaparser.parser.expr.MultiplyNode;
+import com.ledmington.javaparser.parser.expr.PlusNode;
+import com.ledmington.javaparser.parser.expr.VariableReferenceExpression;
+
+/**
+ * A syntax tree stored as a flat arena of nodes, one int per node in each of a few parallel arrays: its
+ * {@link SyntaxKind}, its first child, its next sibling and the range of tokens [{@link #firstToken(int)
+ * firstToken}; {@link #endToken(int) endToken}) it spans in its {@link TokenBuffer}. A missing child or sibling is
+ * -1. Names and values are not copied out of the tokens, so that building the tree allocates nothing but the arrays.
+ *
+ * <p>The tree is walked with a {@link TreeCursor}, while the {@link JavaNode} classes are only built when asked for
+ * with {@link #node(int)}. This class is not thread-safe.
+ */
+public final class SyntaxTree {
+
+	private static final SyntaxKind[] KINDS = SyntaxKind.values();
+
+	private TokenBuffer tokens;
+	private int size = 0;
+	private int[] kinds;
+	private int[] firstChildren;
+	private int[] nextSiblings;
+	private int[] firstTokens;
+	private int[] endTokens;
+	// the last child of each node, so that appending one does not walk its siblings
+	private int[] lastChildren;
+	private int root = -1;
+	// the nodes built so far, allocated on the first call to node(int)
+	private JavaNode[] views = null;
+
+	SyntaxTree(final TokenBuffer tokens, final int initialCapacity) {
+		this.tokens = Objects.requireNonNull(tokens);
+		final int capacity = Math.max(16, initialCapacity);
+		this.kinds = new int[capacity];
+		this.firstChildren = new int[capacity];
+		this.nextSiblings = new int[capacity];
+		this.firstTokens = new int[capacity];
+		this.endTokens = new int[capacity];
+		this.lastChildren = new int[capacity];
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity > kinds.length) {
+			final int newCapacity = Math.max(capacity, kinds.length + (kinds.length >>> 1));
+			kinds = Arrays.copyOf(kinds, newCapacity);
+			firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+			nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+			firstTokens = Arrays.copyOf(firstTokens, newCapacity);
+			endTokens = Arrays.copyOf(endTokens, newCapacity);
+			lastChildren = Arrays.copyOf(lastChildren, newCapacity);
+		}
+	}
+
+	// Empties the tree to parse the given tokens into it, keeping the arrays it has grown so far.
+	void reset(final TokenBuffer tokens) {
+		this.tokens = Objects.requireNonNull(tokens);
+		this.size = 0;
+		this.root = -1;
+		if (views != null) {
+			Arrays.fill(views, null);
+		}
+	}
+
+	// Adds a node without children nor parent, which spans only the given token until it is ended.
+	int add(final SyntaxKind kind, final int firstToken) {
+		ensureCapacity(size + 1);
+		kinds[size] = kind.ordinal();
+		firstChildren[size] = -1;
+		nextSiblings[size] = -1;
+		lastChildren[size] = -1;
+		firstTokens[size] = firstToken;
+		endTokens[size] = firstToken + 1;
+		return size++;
+	}
+
+	// Makes the given node the last child of the given parent.
+	void append(final int parent, final int child) {
+		if (firstChildren[parent] == -1) {
+			firstChildren[parent] = child;
+		} else {
+			nextSiblings[lastChildren[parent]] = child;
+		}
+		lastChildren[parent] = child;
+	}
+
+	void setKind(final int node, final SyntaxKind kind) {
+		kinds[node] = kind.ordinal();
+	}
+
+	void end(final int node, final int endToken) {
+		endTokens[node] = endToken;
+	}
+
+	void setRoot(final int node) {
+		root = node;
+	}
+
+	public TokenBuffer tokens() {
+		return tokens;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int root() {
+		return root;
+	}
+
+	public TreeCursor cursor() {
+		return new TreeCursor(this);
+	}
+
+	private void checkIndex(final int node) {
+		Objects.checkIndex(node, size);
+	}
+
+	public SyntaxKind kind(final int node) {
+		checkIndex(node);
+		return KINDS[kinds[node]];
+	}
+
+	/** Returns the first child of the given node, or -1 if it has none. */
+	public int firstChild(final int node) {
+		checkIndex(node);
+		return firstChildren[node];
+	}
+
+	/** Returns the sibling after the given node, or -1 if it is the last child of its parent. */
+	public int nextSibling(final int node) {
+		checkIndex(node);
+		return nextSiblings[node];
+	}
+
+	public int firstToken(final int node) {
+		checkIndex(node);
+		return firstTokens[node];
+	}
+
+	public int endToken(final int node) {
+		checkIndex(node);
+		return endTokens[node];
+	}
+
+	public int startOffset(final int node) {
+		return tokens.start(firstToken(node));
+	}
+
+	public int endOffset(final int node) {
+		return tokens.end(endToken(node) - 1);
+	}
+
+	/** Returns the exact source text of the given node, including the trivia between its tokens. */
+	public String text(final int node) {
+		final int start = startOffset(node);
+		return new String(tokens.source(), start, endOffset(node) - start);
+	}
+
+	/**
+	 * Returns the given node as one of the {@link JavaNode} classes, building it and all its descendants the first
+	 * time it is asked for. Nodes which have no such class, like {@link SyntaxKind#NAME}, are rejected.
+	 */
+	public JavaNode node(final int node) {
+		checkIndex(node);
+		if (views == null || views.length < size) {
+			views = new JavaNode[size];
+		}
+		if (views[node] == null) {
+			views[node] = build(node);
+		}
+		return views[node];
+	}
+
+	private ExpressionNode expression(final int node) {
+		return (ExpressionNode) node(node);
+	}
+
+	private TypeNode type(final int node) {
+		return (TypeNode) node(node);
+	}
+
+	private String identifier(final int node) {
+		return ((JavaID) tokens.token(firstTokens[node])).id();
+	}
+
+	private JavaKeywords keyword(final int node) {
+		return (JavaKeywords) tokens.token(firstTokens[node]);
+	}
+
+	private long span(final int node) {
+		return Span.of(tokens.start(firstTokens[node]), tokens.end(endTokens[node] - 1));
+	}
+
+	private JavaNode build(final int node) {
+		final int child = firstChildren[node];
+		final long span = span(node);
+		return switch (KINDS[kinds[node]]) {
+			case CLASS_DECLARATION -> buildClass(node);
+			case PACKAGE_DECLARATION -> new PackageDeclarationNode(identifiers(child), span);
+			case IMPORT_DECLARATION -> new ImportDeclarationNode(identifiers(child), span);
+			// both enums are named after the keywords
+			case MODIFIER -> AccessModifier.valueOf(keyword(node).name());
+			case PRIMITIVE_TYPE -> PrimitiveTypes.valueOf(keyword(node).name());
+			case FIELD_DECLARATION -> buildField(node);
+			case METHOD_DECLARATION -> buildMethod(node);
+			case PARAMETER -> {
+				final boolean isFinal = kinds[child] == SyntaxKind.MODIFIER.ordinal();
+				final int type = isFinal ? nextSiblings[child] : child;
+				yield new MethodParameterDeclaration(isFinal, type(type), identifier(nextSiblings[type]), span);
+			}
+			case REFERENCE_TYPE -> {
+				if (child == -1) {
+					yield new ReferenceTypeNode(identifier(node), span);
+				}
+				final List<ReferenceTypeNode> innerTypes = new ArrayList<>();
+				for (int c = child; c != -1; c = nextSiblings[c]) {
+					innerTypes.add((ReferenceTypeNode) node(c));
+				}
+				yield new GenericReferenceTypeNode(identifier(node), innerTypes, span);
+			}
+			case ARRAY_TYPE -> new ArrayType(type(child), span);
+			case VARIABLE_DECLARATION -> {
+				final int type = nextSiblings[child];
+				final int name = nextSiblings[type];
+				final int value = nextSiblings[name];
+				yield new VariableDeclaration(
+						true, type(type), identifier(name), value == -1 ? null : expression(value), span);
+			}
+			case RETURN_STATEMENT -> new ReturnStatement(expression(child), span);
+			case EMPTY_STATEMENT -> new EmptyStatement(span);
+			case FIELD_ASSIGNMENT ->
+				new FieldAssignment((FieldAccessExpression) node(child), expression(nextSiblings[child]), span);
+			case METHOD_INVOCATION_STATEMENT ->
+				new MethodInvocationStatement((MethodInvocationExpression) node(child), span);
+			case CONSTANT -> {
+				final IntegerLiteral il = (IntegerLiteral) tokens.token(firstTokens[node]);
+				yield il.fitsInLong()
+						? new ConstantNode(il.longValue(), il.declaredAsLong(), il.spelling(), span)
+						: new ConstantNode(il.value(), il.declaredAsLong(), il.spelling(), span);
+			}
+			case VARIABLE_REFERENCE -> new VariableReferenceExpression(identifier(node), span);
+			case BRACKETS -> new BracketNode(expression(child), span);
+			case PLUS -> new PlusNode(expression(child), expression(nextSiblings[child]));
+			case MINUS -> new MinusNode(expression(child), expression(nextSiblings[child]));
+			case MULTIPLY -> new MultiplyNode(expression(child), expression(nextSiblings[child]));
+			case DIVIDE -> new DivideNode(expression(child), expression(nextSiblings[child]));
+			case FIELD_ACCESS -> new FieldAccessExpression(expression(child), identifier(nextSiblings[child]), span);
+			case METHOD_INVOCATION -> {
+				final int name = nextSiblings[child];
+				final List<ExpressionNode> arguments = new ArrayList<>();
+				for (int c = nextSiblings[name]; c != -1; c = nextSiblings[c]) {
+					arguments.add(expression(c));
+				}
+				yield new MethodInvocationExpression(expression(child), identifier(name), arguments, span);
+			}
+			case NAME, SUPER_CLASS, INTERFACE, BLOCK -> throw new IllegalArgumentException(
+					String.format("There is no node class for %s.", KINDS[kinds[node]]));
+		};
+	}
+
+	private List<String> identifiers(final int first) {
+		final List<String> names = new ArrayList<>();
+		for (int c = first; c != -1; c = nextSiblings[c]) {
+			names.add(identifier(c));
+		}
+		return names;
+	}
+
+	private JavaClassDeclaration buildClass(final int node) {
+		PackageDeclarationNode packageDeclaration = PackageDeclarationNode.DEFAULT_PACKAGE;
+		final List<ImportDeclarationNode> imports = new ArrayList<>();
+		final List<AccessModifier> modifiers = new ArrayList<>();
+		String name = null;
+		String superClass = null;
+		final List<String> interfaces = new ArrayList<>();
+		final List<FieldDeclarationNode> fields = new ArrayList<>();
+		final List<MethodDeclarationNode> methods = new ArrayList<>();
+		for (int c = firstChildren[node]; c != -1; c = nextSiblings[c]) {
+			switch (KINDS[kinds[c]]) {
+				case PACKAGE_DECLARATION -> packageDeclaration = (PackageDeclarationNode) node(c);
+				case IMPORT_DECLARATION -> imports.add((ImportDeclarationNode) node(c));
+				case MODIFIER -> modifiers.add((AccessModifier) node(c));
+				case NAME -> name = identifier(c);
+				case SUPER_CLASS -> superClass = identifier(c);
+				case INTERFACE -> interfaces.add(identifier(c));
+				case FIELD_DECLARATION -> fields.add((FieldDeclarationNode) node(c));
+				case METHOD_DECLARATION -> methods.add((MethodDeclarationNode) node(c));
+				default -> throw new AssertionError(String.format("Unexpected child %s in a class.", KINDS[kinds[c]]));
+			}
+		}
+		return JavaClassDeclaration.withSpan(
+				packageDeclaration, imports, modifiers, name, superClass, interfaces, fields, methods, span(node));
+	}
+
+	// Reads the modifiers of a member into the given list and returns its type.
+	private int modifiers(final int node, final List<AccessModifier> modifiers) {
+		int c = firstChildren[node];
+		while (kinds[c] == SyntaxKind.MODIFIER.ordinal()) {
+			modifiers.add((AccessModifier) node(c));
+			c = nextSiblings[c];
+		}
+		return c;
+	}
+
+	private FieldDeclarationNode buildField(final int node) {
+		final List<AccessModifier> modifiers = new ArrayList<>();
+		final int type = modifiers(node, modifiers);
+		final int name = nextSiblings[type];
+		final int value = nextSiblings[name];
+		return new FieldDeclarationNode(
+				modifiers, type(type), identifier(name), value == -1 ? null : expression(value), span(node));
+	}
+
+	private MethodDeclarationNode buildMethod(final int node) {
+		final List<AccessModifier> modifiers = new ArrayList<>();
+		final int type = modifiers(node, modifiers);
+		final int name = nextSiblings[type];
+		final List<MethodParameterDeclaration> parameters = new ArrayList<>();
+		int c = nextSiblings[name];
+		while (c != -1 && kinds[c] == SyntaxKind.PARAMETER.ordinal()) {
+			parameters.add((MethodParameterDeclaration) node(c));
+			c = nextSiblings[c];
+		}
+		List<StatementNode> body = null;
+		if (c != -1) {
+			body = new ArrayList<>();
+			for (int s = firstChildren[c]; s != -1; s = nextSiblings[s]) {
+				body.add((StatementNode) node(s));
+			}
+		}
+		return new MethodDeclarationNode(modifiers, type(type), identifier(name), parameters, body, span(node));
+	}
+
+	@Override
+	public String toString() {
+		return "SyntaxTree(" + size + " nodes over " + tokens.size() + " tokens)";
+	}
+}
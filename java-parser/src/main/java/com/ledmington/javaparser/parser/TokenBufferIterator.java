@@ -0,0 +1,107 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ledmington.javaparser.lexer.JavaSymbols;
+import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+
+/**
+ * A {@link TokenIterator} reading directly from a {@link TokenBuffer}. Since the parser usually inspects the same
+ * token more than once, the last two materialized tokens are cached.
+ */
+public final class TokenBufferIterator implements TokenIterator {
+
+	private static final int LEFT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_CURLY_BRACKET);
+	private static final int RIGHT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_CURLY_BRACKET);
+
+	private final TokenBuffer buffer;
+	// the tokens [index; limit) are left out of [from; limit), and the source they come from ends at endOffset
+	private final int from;
+	private final int limit;
+	private final int endOffset;
+	private final int[] cachedIndices = {-1, -1};
+	private final JavaToken[] cachedTokens = new JavaToken[2];
+	private int index;
+
+	public TokenBufferIterator(final TokenBuffer buffer) {
+		this(buffer, 0, buffer.size(), buffer.source().length);
+	}
+
+	private TokenBufferIterator(final TokenBuffer buffer, final int from, final int limit, final int endOffset) {
+		this.buffer = Objects.requireNonNull(buffer);
+		this.from = from;
+		this.index = from;
+		this.limit = limit;
+		this.endOffset = endOffset;
+	}
+
+	@Override
+	public boolean hasNext(final int step) {
+		if (step < 1) {
+			throw new AssertionError();
+		}
+		return index < (limit - (step - 1));
+	}
+
+	@Override
+	public JavaToken current(final int step) {
+		final int i = index + step;
+		if (i >= limit) {
+			throw new TooFewTokensException(List.of(), source(), endOffset);
+		}
+		final int slot = i & 1;
+		if (cachedIndices[slot] != i) {
+			cachedTokens[slot] = buffer.token(i);
+			cachedIndices[slot] = i;
+		}
+		return cachedTokens[slot];
+	}
+
+	@Override
+	public void move() {
+		index++;
+	}
+
+	@Override
+	public int offset() {
+		return index < limit ? buffer.start(index) : endOffset;
+	}
+
+	@Override
+	public int endOffset() {
+		return index < limit ? buffer.end(index) : endOffset;
+	}
+
+	@Override
+	public int previousEnd() {
+		// the index can be past the limit after moving past the last token
+		return index > from ? buffer.end(Math.min(index, limit) - 1) : offset();
+	}
+
+	@Override
+	public char[] source() {
+		return buffer.source();
+	}
+
+	@Override
+	public int skipBlock() {
+		// only kinds are compared, so that no token is materialized
+		int depth = 0;
+		for (; index < limit; index++) {
+			final int kind = buffer.kind(index);
+			if (kind == LEFT_CURLY_BRACKET) {
+				depth++;
+			} else if (kind == RIGHT_CURLY_BRACKET && --depth == 0) {
+				return buffer.start(index++);
+			}
+		}
+		throw new TooFewTokensException(List.of(JavaSymbols.RIGHT_CURLY_BRACKET), source(), endOffset);
+	}
+
+	@Override
+	public TokenIterator range(final int start, final int end) {
+		return new TokenBufferIterator(buffer, buffer.firstTokenAt(start), buffer.firstTokenAt(end), end);
+	}
+}
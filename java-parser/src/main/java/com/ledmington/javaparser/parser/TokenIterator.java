@@ -1,43 +1,69 @@
 package com.ledmington.javaparser.parser;
 
 import java.util.List;
-import java.util.Objects;
 
+import com.ledmington.javaparser.lexer.JavaSymbols;
 import com.ledmington.javaparser.lexer.JavaToken;
 
-public final class TokenIterator {
+public interface TokenIterator {
 
-    private final List<JavaToken> tokens;
-    private int index = 0;
+	boolean hasNext(int step);
 
-    public TokenIterator(final List<JavaToken> tokens) {
-        this.tokens = Objects.requireNonNull(tokens);
-    }
+	default boolean hasNext() {
+		return hasNext(1);
+	}
 
-    public boolean hasNext(final int step) {
-        if (step < 1) {
-            throw new AssertionError();
-        }
-        return index < (tokens.size() - (step - 1));
-    }
+	/**
+	 * Returns the token the given number of positions after the current one, throwing a
+	 * {@link TooFewTokensException} if the tokens finish before it.
+	 */
+	JavaToken current(int step);
 
-    public boolean hasNext() {
-        return hasNext(1);
-    }
+	default JavaToken current() {
+		return current(0);
+	}
 
-    public JavaToken current(final int step) {
-        return tokens.get(index + step);
-    }
+	default JavaToken next() {
+		return current(1);
+	}
 
-    public JavaToken current() {
-        return current(0);
-    }
+	void move();
 
-    public JavaToken next() {
-        return current(1);
-    }
+	/** Returns the offset in the source of the current token, or the length of the source when there are no more. */
+	int offset();
 
-    public void move() {
-        index++;
-    }
+	/** Returns the offset right after the current token, with the same conventions as {@link #offset()}. */
+	int endOffset();
+
+	/**
+	 * Returns the offset right after the last token moved past, or the offset of the current one if none was, with
+	 * the same conventions as {@link #offset()}.
+	 */
+	int previousEnd();
+
+	/** Returns the source the tokens come from. */
+	char[] source();
+
+	/**
+	 * Moves past the block opened by the current '{', up to and including its matching '}', and returns the offset of
+	 * the latter.
+	 */
+	default int skipBlock() {
+		int depth = 0;
+		while (hasNext()) {
+			final JavaToken t = current();
+			if (t == JavaSymbols.LEFT_CURLY_BRACKET) {
+				depth++;
+			} else if (t == JavaSymbols.RIGHT_CURLY_BRACKET && --depth == 0) {
+				final int close = offset();
+				move();
+				return close;
+			}
+			move();
+		}
+		throw new TooFewTokensException(List.of(JavaSymbols.RIGHT_CURLY_BRACKET), source(), offset());
+	}
+
+	/** Returns a new iterator over the tokens in [start; end) of the source. */
+	TokenIterator range(int start, int end);
 }
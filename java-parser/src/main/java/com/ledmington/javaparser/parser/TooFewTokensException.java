@@ -1,22 +1,43 @@
 package com.ledmington.javaparser.parser;
 
 import java.io.Serial;
-import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.SyntaxException;
 
-public final class TooFewTokensException extends RuntimeException {
+public final class TooFewTokensException extends SyntaxException {
 
 	@Serial
 	private static final long serialVersionUID = -7535379936846688209L;
 
+	private final transient List<JavaToken> expected;
+
 	public TooFewTokensException(final JavaToken expectedToken, final JavaToken... others) {
-		super(String.format(
-				"Expected %s %s but stream of tokens finished too early.",
-				others.length == 0 ? "token" : "any of",
-				Stream.concat(Stream.of(expectedToken), Arrays.stream(others)).map(s -> '\'' + s.toString() + '\'')
-						.collect(Collectors.joining(", "))));
+		this(Stream.concat(Stream.of(expectedToken), Stream.of(others)).toList(), null, -1);
+	}
+
+	/** Builds an exception for the input which finished at the given offset of the source. */
+	public TooFewTokensException(final List<JavaToken> expected, final char[] source, final int offset) {
+		super(source, offset, offset);
+		this.expected = Objects.requireNonNull(expected);
+	}
+
+	public List<JavaToken> expected() {
+		return expected;
+	}
+
+	@Override
+	protected String describe() {
+		if (expected.isEmpty()) {
+			return "Stream of tokens finished too early";
+		}
+		return String.format(
+				"Expected %s %s but stream of tokens finished too early",
+				expected.size() == 1 ? "token" : "any of",
+				expected.stream().map(s -> '\'' + s.toString() + '\'').collect(Collectors.joining(", ")));
 	}
 }
@@ -0,0 +1,97 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A position in a {@link SyntaxTree}, which starts at its root and moves between nodes without allocating, except
+ * to grow the stack of the nodes above the current one.
+ */
+public final class TreeCursor {
+
+	private final SyntaxTree tree;
+	private int node;
+	private int[] parents = new int[16];
+	private int depth = 0;
+
+	TreeCursor(final SyntaxTree tree) {
+		this.tree = Objects.requireNonNull(tree);
+		this.node = tree.root();
+	}
+
+	public SyntaxTree tree() {
+		return tree;
+	}
+
+	/** Returns the index of the current node in its tree. */
+	public int index() {
+		return node;
+	}
+
+	/** Returns how many nodes are above the current one, 0 at the root. */
+	public int depth() {
+		return depth;
+	}
+
+	public SyntaxKind kind() {
+		return tree.kind(node);
+	}
+
+	/** Moves to the first child of the current node and returns true, or returns false if it has none. */
+	public boolean gotoFirstChild() {
+		final int child = tree.firstChild(node);
+		if (child == -1) {
+			return false;
+		}
+		if (depth == parents.length) {
+			parents = Arrays.copyOf(parents, parents.length * 2);
+		}
+		parents[depth++] = node;
+		node = child;
+		return true;
+	}
+
+	/** Moves to the next sibling of the current node and returns true, or returns false if it is the last one. */
+	public boolean gotoNextSibling() {
+		final int sibling = tree.nextSibling(node);
+		if (sibling == -1 || depth == 0) {
+			return false;
+		}
+		node = sibling;
+		return true;
+	}
+
+	/** Moves to the parent of the current node and returns true, or returns false if it is the root. */
+	public boolean gotoParent() {
+		if (depth == 0) {
+			return false;
+		}
+		node = parents[--depth];
+		return true;
+	}
+
+	public int firstToken() {
+		return tree.firstToken(node);
+	}
+
+	public int endToken() {
+		return tree.endToken(node);
+	}
+
+	public int startOffset() {
+		return tree.startOffset(node);
+	}
+
+	public int endOffset() {
+		return tree.endOffset(node);
+	}
+
+	public String text() {
+		return tree.text(node);
+	}
+
+	/** Returns the current node as one of the {@link JavaNode} classes, see {@link SyntaxTree#node(int)}. */
+	public JavaNode node() {
+		return tree.node(node);
+	}
+}
@@ -0,0 +1,536 @@
+package com.ledmington.javaparser.parser;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.ledmington.javaparser.lexer.JavaID;
+import com.ledmington.javaparser.lexer.JavaKeywords;
+import com.ledmington.javaparser.lexer.JavaSymbols;
+import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+
+/**
+ * Parses a {@link TokenBuffer} into a {@link SyntaxTree}, following the same grammar as {@link JavaParser} and
+ * throwing the same errors. Only the kinds of the tokens are looked at, so that no token is materialized unless it
+ * ends up in an error.
+ */
+final class TreeParser {
+
+	private static final int ID = TokenBuffer.ID;
+	private static final int INTEGER_LITERAL = TokenBuffer.INTEGER_LITERAL;
+	private static final int PACKAGE = TokenBuffer.kindOf(JavaKeywords.PACKAGE);
+	private static final int IMPORT = TokenBuffer.kindOf(JavaKeywords.IMPORT);
+	private static final int CLASS = TokenBuffer.kindOf(JavaKeywords.CLASS);
+	private static final int EXTENDS = TokenBuffer.kindOf(JavaKeywords.EXTENDS);
+	private static final int IMPLEMENTS = TokenBuffer.kindOf(JavaKeywords.IMPLEMENTS);
+	private static final int FINAL = TokenBuffer.kindOf(JavaKeywords.FINAL);
+	private static final int RETURN = TokenBuffer.kindOf(JavaKeywords.RETURN);
+	private static final int DOT = TokenBuffer.kindOf(JavaSymbols.DOT);
+	private static final int COMMA = TokenBuffer.kindOf(JavaSymbols.COMMA);
+	private static final int SEMICOLON = TokenBuffer.kindOf(JavaSymbols.SEMICOLON);
+	private static final int EQUAL = TokenBuffer.kindOf(JavaSymbols.EQUAL);
+	private static final int LEFT_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_BRACKET);
+	private static final int RIGHT_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_BRACKET);
+	private static final int LEFT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_CURLY_BRACKET);
+	private static final int RIGHT_CURLY_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_CURLY_BRACKET);
+	private static final int LEFT_SQUARE_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_SQUARE_BRACKET);
+	private static final int RIGHT_SQUARE_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_SQUARE_BRACKET);
+	private static final int LEFT_ANGLE_BRACKET = TokenBuffer.kindOf(JavaSymbols.LEFT_ANGLE_BRACKET);
+	private static final int RIGHT_ANGLE_BRACKET = TokenBuffer.kindOf(JavaSymbols.RIGHT_ANGLE_BRACKET);
+	private static final int PLUS = TokenBuffer.kindOf(JavaSymbols.PLUS);
+	private static final int MINUS = TokenBuffer.kindOf(JavaSymbols.MINUS);
+	private static final int ASTERISK = TokenBuffer.kindOf(JavaSymbols.ASTERISK);
+	private static final int FORWARD_SLASH = TokenBuffer.kindOf(JavaSymbols.FORWARD_SLASH);
+
+	private static final JavaKeywords[] MODIFIERS = {
+		JavaKeywords.PUBLIC,
+		JavaKeywords.PRIVATE,
+		JavaKeywords.PROTECTED,
+		JavaKeywords.ABSTRACT,
+		JavaKeywords.STATIC,
+		JavaKeywords.FINAL,
+		JavaKeywords.VOLATILE,
+		JavaKeywords.SYNCHRONIZED,
+		JavaKeywords.STRICTFP,
+		JavaKeywords.TRANSIENT,
+		JavaKeywords.NATIVE
+	};
+	private static final JavaKeywords[] PRIMITIVE_TYPES = {
+		JavaKeywords.VOID,
+		JavaKeywords.BYTE,
+		JavaKeywords.CHAR,
+		JavaKeywords.SHORT,
+		JavaKeywords.INT,
+		JavaKeywords.FLOAT,
+		JavaKeywords.LONG,
+		JavaKeywords.DOUBLE
+	};
+	// whether each keyword kind is a modifier or a primitive type, indexed by kind
+	private static final boolean[] IS_MODIFIER = kindSet(MODIFIERS);
+	private static final boolean[] IS_PRIMITIVE_TYPE = kindSet(PRIMITIVE_TYPES);
+
+	private TokenBuffer tokens;
+	private SyntaxTree tree;
+	private int pos = 0;
+	// the stacks of the expression being parsed: nodes for the operands, token indices for the operators
+	private int[] operands = new int[16];
+	private int operandCount = 0;
+	private int[] operators = new int[16];
+	private int operatorCount = 0;
+
+	TreeParser() {
+	}
+
+	private static boolean[] kindSet(final JavaKeywords... keywords) {
+		int max = 0;
+		for (final JavaKeywords k : keywords) {
+			max = Math.max(max, TokenBuffer.kindOf(k));
+		}
+		final boolean[] set = new boolean[max + 1];
+		for (final JavaKeywords k : keywords) {
+			set[TokenBuffer.kindOf(k)] = true;
+		}
+		return set;
+	}
+
+	private static boolean contains(final boolean[] set, final int kind) {
+		return kind < set.length && set[kind];
+	}
+
+	static SyntaxTree parse(final TokenBuffer tokens) {
+		// a rough guess, most nodes span a couple of tokens
+		return new TreeParser().parse(tokens, new SyntaxTree(tokens, tokens.size() / 2));
+	}
+
+	// Parses the given tokens into the given tree, which is emptied first, reusing the stacks of earlier calls.
+	SyntaxTree parse(final TokenBuffer tokens, final SyntaxTree tree) {
+		tree.reset(tokens);
+		this.tokens = tokens;
+		this.tree = tree;
+		this.pos = 0;
+		this.operandCount = 0;
+		this.operatorCount = 0;
+		tree.setRoot(parseClass());
+		return tree;
+	}
+
+	private boolean hasNext() {
+		return pos < tokens.size();
+	}
+
+	private boolean hasNext(final int step) {
+		return pos + step - 1 < tokens.size();
+	}
+
+	private int kind() {
+		return kind(0);
+	}
+
+	// Returns the kind of the token the given number of positions after the current one, or throws like a
+	// TokenIterator if the tokens finish before it.
+	private int kind(final int step) {
+		if (pos + step >= tokens.size()) {
+			throw new TooFewTokensException(List.of(), tokens.source(), tokens.source().length);
+		}
+		return tokens.kind(pos + step);
+	}
+
+	private boolean at(final int kind) {
+		return hasNext() && kind() == kind;
+	}
+
+	private UnexpectedTokenException unexpectedToken(final JavaToken... expected) {
+		return new UnexpectedTokenException(
+				List.of(expected), tokens.token(pos), tokens.source(), tokens.start(pos), tokens.end(pos));
+	}
+
+	private TooFewTokensException tooFewTokens(final JavaToken... expected) {
+		return new TooFewTokensException(
+				List.of(expected), tokens.source(), hasNext() ? tokens.start(pos) : tokens.source().length);
+	}
+
+	private void expect(final int kind, final JavaToken expected) {
+		if (!hasNext()) {
+			throw tooFewTokens(expected);
+		}
+		if (kind() != kind) {
+			throw unexpectedToken(expected);
+		}
+		pos++;
+	}
+
+	private int parseName(final JavaID placeholder) {
+		if (!hasNext()) {
+			throw tooFewTokens(placeholder);
+		}
+		if (kind() != ID) {
+			throw unexpectedToken(placeholder);
+		}
+		return tree.add(SyntaxKind.NAME, pos++);
+	}
+
+	private int parseClass() {
+		if (!hasNext()) {
+			throw tooFewTokens(JavaKeywords.PACKAGE, JavaKeywords.IMPORT, JavaKeywords.CLASS);
+		}
+
+		final int node = tree.add(SyntaxKind.CLASS_DECLARATION, pos);
+		if (kind() == PACKAGE) {
+			tree.append(node, parseQualifiedName(SyntaxKind.PACKAGE_DECLARATION));
+		}
+		while (at(IMPORT)) {
+			tree.append(node, parseQualifiedName(SyntaxKind.IMPORT_DECLARATION));
+		}
+
+		if (!hasNext()) {
+			throw tooFewTokens(JavaKeywords.CLASS);
+		}
+		parseModifiers(node);
+		if (!hasNext()) {
+			throw tooFewTokens(JavaKeywords.CLASS);
+		}
+		expect(CLASS, JavaKeywords.CLASS);
+
+		tree.append(node, parseName(JavaParser.DEFAULT_CLASS));
+
+		if (hasNext(2) && kind() == EXTENDS && kind(1) == ID) {
+			pos++;
+			tree.append(node, tree.add(SyntaxKind.SUPER_CLASS, pos++));
+		}
+
+		if (at(IMPLEMENTS)) {
+			do {
+				pos++;
+				final int name = parseName(JavaParser.DEFAULT_CLASS);
+				tree.setKind(name, SyntaxKind.INTERFACE);
+				tree.append(node, name);
+			} while (at(COMMA));
+		}
+
+		expect(LEFT_CURLY_BRACKET, JavaSymbols.LEFT_CURLY_BRACKET);
+		while (hasNext() && kind() != RIGHT_CURLY_BRACKET) {
+			tree.append(node, parseMember());
+		}
+		if (hasNext()) {
+			pos++;
+		}
+
+		tree.end(node, pos);
+		return node;
+	}
+
+	private int parseQualifiedName(final SyntaxKind kind) {
+		final int node = tree.add(kind, pos++);
+		if (kind() != ID) {
+			throw unexpectedToken(JavaParser.DEFAULT_PACKAGE);
+		}
+		tree.append(node, tree.add(SyntaxKind.NAME, pos++));
+		while (hasNext(2) && kind() == DOT && kind(1) == ID) {
+			pos++;
+			tree.append(node, tree.add(SyntaxKind.NAME, pos++));
+		}
+		expect(SEMICOLON, JavaSymbols.SEMICOLON);
+		tree.end(node, pos);
+		return node;
+	}
+
+	private void parseModifiers(final int parent) {
+		while (hasNext() && contains(IS_MODIFIER, kind())) {
+			tree.append(parent, tree.add(SyntaxKind.MODIFIER, pos++));
+		}
+	}
+
+	private int parseMember() {
+		// a field until proven otherwise
+		final int node = tree.add(SyntaxKind.FIELD_DECLARATION, pos);
+		parseModifiers(node);
+		tree.append(node, parseType());
+
+		if (kind() != ID) {
+			throw unexpectedToken(new JavaID("<field_name>"));
+		}
+		tree.append(node, tree.add(SyntaxKind.NAME, pos++));
+
+		if (kind() == LEFT_BRACKET) {
+			tree.setKind(node, SyntaxKind.METHOD_DECLARATION);
+			parseMethod(node);
+		} else {
+			parseField(node);
+		}
+		tree.end(node, pos);
+		return node;
+	}
+
+	private void parseField(final int node) {
+		if (!hasNext()) {
+			throw tooFewTokens(JavaSymbols.EQUAL, JavaSymbols.SEMICOLON);
+		}
+		if (kind() == SEMICOLON) {
+			pos++;
+			return;
+		}
+		expect(EQUAL, JavaSymbols.EQUAL);
+		tree.append(node, parseExpression());
+		expect(SEMICOLON, JavaSymbols.SEMICOLON);
+	}
+
+	private void parseMethod(final int node) {
+		expect(LEFT_BRACKET, JavaSymbols.LEFT_BRACKET);
+		if (kind() != RIGHT_BRACKET) {
+			tree.append(node, parseParameter());
+			while (at(COMMA)) {
+				pos++;
+				tree.append(node, parseParameter());
+			}
+		}
+		expect(RIGHT_BRACKET, JavaSymbols.RIGHT_BRACKET);
+
+		if (kind() == SEMICOLON) {
+			pos++;
+			return;
+		}
+
+		final int block = tree.add(SyntaxKind.BLOCK, pos);
+		expect(LEFT_CURLY_BRACKET, JavaSymbols.LEFT_CURLY_BRACKET);
+		while (hasNext() && kind() != RIGHT_CURLY_BRACKET) {
+			tree.append(block, parseStatement());
+		}
+		expect(RIGHT_CURLY_BRACKET, JavaSymbols.RIGHT_CURLY_BRACKET);
+		tree.end(block, pos);
+		tree.append(node, block);
+	}
+
+	private int parseParameter() {
+		final int node = tree.add(SyntaxKind.PARAMETER, pos);
+		if (kind() == FINAL) {
+			tree.append(node, tree.add(SyntaxKind.MODIFIER, pos++));
+		}
+		tree.append(node, parseType());
+		tree.append(node, parseName(JavaParser.DEFAULT_VARIABLE));
+		tree.end(node, pos);
+		return node;
+	}
+
+	private int parseStatement() {
+		final int first = pos;
+		final int node;
+		if (kind() == FINAL) {
+			node = tree.add(SyntaxKind.VARIABLE_DECLARATION, first);
+			tree.append(node, tree.add(SyntaxKind.MODIFIER, pos++));
+			tree.append(node, parseType());
+			tree.append(node, parseName(JavaParser.DEFAULT_VARIABLE));
+			if (kind() == EQUAL) {
+				pos++;
+				tree.append(node, parseExpression());
+			}
+		} else if (kind() == RETURN) {
+			node = tree.add(SyntaxKind.RETURN_STATEMENT, pos++);
+			tree.append(node, parseExpression());
+		} else if (kind() == SEMICOLON) {
+			return tree.add(SyntaxKind.EMPTY_STATEMENT, pos++);
+		} else if (kind() == ID) {
+			int expr = tree.add(SyntaxKind.VARIABLE_REFERENCE, pos++);
+			while (kind() == DOT && kind(1) == ID) {
+				pos++;
+				final int name = tree.add(SyntaxKind.NAME, pos++);
+				final int access;
+				if (kind() == LEFT_BRACKET) {
+					access = tree.add(SyntaxKind.METHOD_INVOCATION, first);
+					tree.append(access, expr);
+					tree.append(access, name);
+					pos++;
+					tree.append(access, parseExpression());
+					while (kind() == COMMA) {
+						pos++;
+						tree.append(access, parseExpression());
+					}
+					expect(RIGHT_BRACKET, JavaSymbols.RIGHT_BRACKET);
+				} else {
+					access = tree.add(SyntaxKind.FIELD_ACCESS, first);
+					tree.append(access, expr);
+					tree.append(access, name);
+				}
+				tree.end(access, pos);
+				expr = access;
+			}
+
+			if (tree.kind(expr) == SyntaxKind.FIELD_ACCESS) {
+				node = tree.add(SyntaxKind.FIELD_ASSIGNMENT, first);
+				tree.append(node, expr);
+				expect(EQUAL, JavaSymbols.EQUAL);
+				tree.append(node, parseExpression());
+			} else if (tree.kind(expr) == SyntaxKind.METHOD_INVOCATION) {
+				node = tree.add(SyntaxKind.METHOD_INVOCATION_STATEMENT, first);
+				tree.append(node, expr);
+			} else {
+				throw unsupportedStatement();
+			}
+		} else {
+			throw unsupportedStatement();
+		}
+		expect(SEMICOLON, JavaSymbols.SEMICOLON);
+		tree.end(node, pos);
+		return node;
+	}
+
+	// The same error as JavaParser, where unsupported statements are parsed as null.
+	private static IllegalArgumentException unsupportedStatement() {
+		return new IllegalArgumentException("Parsed statement was null");
+	}
+
+	private int parseType() {
+		if (!hasNext()) {
+			throw tooFewTokens(JavaKeywords.VOID, JavaKeywords.BYTE, JavaKeywords.CHAR, JavaKeywords.SHORT,
+					JavaKeywords.INT, JavaKeywords.FLOAT, JavaKeywords.LONG, JavaKeywords.DOUBLE);
+		}
+
+		int type = contains(IS_PRIMITIVE_TYPE, kind())
+				? tree.add(SyntaxKind.PRIMITIVE_TYPE, pos++)
+				: parseReferenceType();
+
+		while (kind() == LEFT_SQUARE_BRACKET) {
+			pos++;
+			expect(RIGHT_SQUARE_BRACKET, JavaSymbols.RIGHT_SQUARE_BRACKET);
+			final int array = tree.add(SyntaxKind.ARRAY_TYPE, tree.firstToken(type));
+			tree.append(array, type);
+			tree.end(array, pos);
+			type = array;
+		}
+
+		return type;
+	}
+
+	private int parseReferenceType() {
+		if (kind() != ID) {
+			throw unexpectedToken(new JavaID("<type_name>"));
+		}
+		final int node = tree.add(SyntaxKind.REFERENCE_TYPE, pos++);
+
+		if (at(LEFT_ANGLE_BRACKET)) {
+			pos++;
+			tree.append(node, parseReferenceType());
+			while (at(COMMA)) {
+				pos++;
+				tree.append(node, parseReferenceType());
+			}
+			expect(RIGHT_ANGLE_BRACKET, JavaSymbols.RIGHT_ANGLE_BRACKET);
+		}
+
+		tree.end(node, pos);
+		return node;
+	}
+
+	private static int bindingPower(final int kind) {
+		if (kind == PLUS || kind == MINUS) {
+			return 1;
+		}
+		if (kind == ASTERISK || kind == FORWARD_SLASH) {
+			return 2;
+		}
+		return 0;
+	}
+
+	private void pushOperand(final int node) {
+		if (operandCount == operands.length) {
+			operands = Arrays.copyOf(operands, operands.length * 2);
+		}
+		operands[operandCount++] = node;
+	}
+
+	private void pushOperator(final int token) {
+		if (operatorCount == operators.length) {
+			operators = Arrays.copyOf(operators, operators.length * 2);
+		}
+		operators[operatorCount++] = token;
+	}
+
+	private int topOperator() {
+		return tokens.kind(operators[operatorCount - 1]);
+	}
+
+	// The same precedence climbing as JavaParser, with the stacks kept across calls so that they are reused.
+	private int parseExpression() {
+		if (!hasNext()) {
+			throw tooFewTokens(JavaSymbols.PLUS, JavaSymbols.MINUS, JavaSymbols.ASTERISK, JavaSymbols.FORWARD_SLASH);
+		}
+
+		final int operatorBase = operatorCount;
+		int openBrackets = 0;
+
+		while (true) {
+			while (at(LEFT_BRACKET)) {
+				pushOperator(pos++);
+				openBrackets++;
+			}
+			pushOperand(parseSimpleExpression());
+
+			while (openBrackets > 0 && at(RIGHT_BRACKET)) {
+				while (topOperator() != LEFT_BRACKET) {
+					reduce();
+				}
+				final int brackets = tree.add(SyntaxKind.BRACKETS, operators[--operatorCount]);
+				openBrackets--;
+				tree.append(brackets, operands[--operandCount]);
+				tree.end(brackets, ++pos);
+				pushOperand(brackets);
+			}
+
+			if (!(hasNext() && bindingPower(kind()) > 0)) {
+				break;
+			}
+			final int op = kind();
+			// operators are left-associative: the ones already on the stack which bind as tightly go first
+			while (operatorCount > operatorBase
+					&& topOperator() != LEFT_BRACKET
+					&& bindingPower(topOperator()) >= bindingPower(op)) {
+				reduce();
+			}
+			pushOperator(pos++);
+		}
+
+		if (openBrackets > 0) {
+			expect(RIGHT_BRACKET, JavaSymbols.RIGHT_BRACKET);
+		}
+		while (operatorCount > operatorBase) {
+			reduce();
+		}
+		return operands[--operandCount];
+	}
+
+	private void reduce() {
+		final int opToken = operators[--operatorCount];
+		final int op = tokens.kind(opToken);
+		final int rhs = operands[--operandCount];
+		final int lhs = operands[--operandCount];
+		final SyntaxKind kind;
+		if (op == PLUS) {
+			kind = SyntaxKind.PLUS;
+		} else if (op == MINUS) {
+			kind = SyntaxKind.MINUS;
+		} else if (op == ASTERISK) {
+			kind = SyntaxKind.MULTIPLY;
+		} else if (op == FORWARD_SLASH) {
+			kind = SyntaxKind.DIVIDE;
+		} else {
+			throw new AssertionError(String.format("No node for binary operator %s.", tokens.token(opToken)));
+		}
+		final int node = tree.add(kind, tree.firstToken(lhs));
+		tree.append(node, lhs);
+		tree.append(node, rhs);
+		tree.end(node, tree.endToken(rhs));
+		pushOperand(node);
+	}
+
+	// Parses a single operand, without brackets around.
+	private int parseSimpleExpression() {
+		if (!hasNext()) {
+			throw tooFewTokens(JavaParser.DEFAULT_EXPRESSION);
+		}
+		if (kind() == INTEGER_LITERAL) {
+			return tree.add(SyntaxKind.CONSTANT, pos++);
+		} else if (kind() == ID) {
+			return tree.add(SyntaxKind.VARIABLE_REFERENCE, pos++);
+		}
+		throw unexpectedToken();
+	}
+}
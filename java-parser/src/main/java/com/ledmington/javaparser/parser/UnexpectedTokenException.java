@@ -1,19 +1,59 @@
 package com.ledmington.javaparser.parser;
 
 import java.io.Serial;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import com.ledmington.javaparser.lexer.JavaToken;
+import com.ledmington.javaparser.lexer.SyntaxException;
 
-public final class UnexpectedTokenException extends RuntimeException {
+public final class UnexpectedTokenException extends SyntaxException {
 
 	@Serial
 	private static final long serialVersionUID = 3505223255523865323L;
 
+	private final transient List<JavaToken> expected;
+	private final transient JavaToken found;
+
 	public UnexpectedTokenException(final JavaToken t) {
-		super(String.format("Unexpected token '%s'", t));
+		this(List.of(), t, null, -1, -1);
 	}
 
 	public UnexpectedTokenException(final JavaToken expected, final JavaToken actual) {
-		super(String.format("Expected token '%s' but '%s' was found", expected, actual));
+		this(List.of(expected), actual, null, -1, -1);
+	}
+
+	/** Builds an exception for the token found in [start; end) of the given source. */
+	public UnexpectedTokenException(
+			final List<JavaToken> expected,
+			final JavaToken found,
+			final char[] source,
+			final int start,
+			final int end) {
+		super(source, start, end);
+		this.expected = Objects.requireNonNull(expected);
+		this.found = found;
+	}
+
+	/** Returns the tokens which were expected, empty when any other token would have been. */
+	public List<JavaToken> expected() {
+		return expected;
+	}
+
+	public JavaToken found() {
+		return found;
+	}
+
+	@Override
+	protected String describe() {
+		return switch (expected.size()) {
+			case 0 -> String.format("Unexpected token '%s'", found);
+			case 1 -> String.format("Expected token '%s' but '%s' was found", expected.getFirst(), found);
+			default -> String.format(
+					"Expected any of %s but '%s' was found",
+					expected.stream().map(s -> '\'' + s.toString() + '\'').collect(Collectors.joining(", ")),
+					found);
+		};
 	}
 }
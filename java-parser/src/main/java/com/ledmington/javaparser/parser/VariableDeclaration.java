@@ -10,9 +10,19 @@ public final class VariableDeclaration implements StatementNode {
 	private final TypeNode type;
 	private final String name;
 	private final ExpressionNode expr;
+	private final long span;
 
 	public VariableDeclaration(
 			final boolean isFinal, final TypeNode type, final String name, final ExpressionNode expr) {
+		this(isFinal, type, name, expr, Span.UNKNOWN);
+	}
+
+	public VariableDeclaration(
+			final boolean isFinal,
+			final TypeNode type,
+			final String name,
+			final ExpressionNode expr,
+			final long span) {
 		this.isFinal = isFinal;
 		this.type = Objects.requireNonNull(type);
 		if (name.isBlank()) {
@@ -20,6 +30,12 @@ public final class VariableDeclaration implements StatementNode {
 		}
 		this.name = Objects.requireNonNull(name);
 		this.expr = Objects.requireNonNull(expr);
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
@@ -0,0 +1,72 @@
+package com.ledmington.javaparser.parser.expr;
+
+import java.util.Objects;
+
+import com.ledmington.javaparser.parser.Span;
+
+/**
+ * An expression made of two operands joined by a binary operator. Chains of them can be as deep as the expression
+ * is long, so all of them are printed, hashed and compared by {@link ExpressionNodes} without recursion. The span
+ * goes from the start of the left operand to the end of the right one, so it is known if theirs are.
+ */
+abstract sealed class BinaryNode implements ExpressionNode permits PlusNode, MinusNode, MultiplyNode, DivideNode {
+
+	private final String operator;
+	private final ExpressionNode lhs;
+	private final ExpressionNode rhs;
+	private final long span;
+
+	protected BinaryNode(final String operator, final ExpressionNode lhs, final ExpressionNode rhs) {
+		this.operator = Objects.requireNonNull(operator);
+		this.lhs = Objects.requireNonNull(lhs);
+		this.rhs = Objects.requireNonNull(rhs);
+		this.span = Span.join(lhs.span(), rhs.span());
+	}
+
+	final String operator() {
+		return operator;
+	}
+
+	final ExpressionNode lhs() {
+		return lhs;
+	}
+
+	final ExpressionNode rhs() {
+		return rhs;
+	}
+
+	@Override
+	public final long span() {
+		return span;
+	}
+
+	@Override
+	public final String toJava() {
+		return ExpressionNodes.toJava(this);
+	}
+
+	@Override
+	public final String toString() {
+		return getClass().getSimpleName() + "(" + ExpressionNodes.toJava(lhs) + "," + ExpressionNodes.toJava(rhs)
+				+ ")";
+	}
+
+	@Override
+	public final int hashCode() {
+		return ExpressionNodes.hashCode(this);
+	}
+
+	@Override
+	public final boolean equals(final Object other) {
+		if (other == null) {
+			return false;
+		}
+		if (this == other) {
+			return true;
+		}
+		if (!this.getClass().equals(other.getClass())) {
+			return false;
+		}
+		return ExpressionNodes.equals(this, (BinaryNode) other);
+	}
+}
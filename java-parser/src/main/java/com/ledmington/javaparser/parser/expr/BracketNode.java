@@ -2,16 +2,57 @@ package com.ledmington.javaparser.parser.expr;
 
 import java.util.Objects;
 
+import com.ledmington.javaparser.parser.Span;
+
 public final class BracketNode implements ExpressionNode {
 
 	private final ExpressionNode expr;
+	private final long span;
 
 	public BracketNode(final ExpressionNode expr) {
+		this(expr, Span.UNKNOWN);
+	}
+
+	public BracketNode(final ExpressionNode expr, final long span) {
 		this.expr = Objects.requireNonNull(expr);
+		this.span = span;
+	}
+
+	ExpressionNode expr() {
+		return expr;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
 	public String toJava() {
-		return "(" + expr.toJava() + ")";
+		return ExpressionNodes.toJava(this);
+	}
+
+	@Override
+	public String toString() {
+		return "BracketNode(" + ExpressionNodes.toJava(expr) + ")";
+	}
+
+	@Override
+	public int hashCode() {
+		return ExpressionNodes.hashCode(this);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (other == null) {
+			return false;
+		}
+		if (this == other) {
+			return true;
+		}
+		if (!this.getClass().equals(other.getClass())) {
+			return false;
+		}
+		return ExpressionNodes.equals(this, (BracketNode) other);
 	}
 }
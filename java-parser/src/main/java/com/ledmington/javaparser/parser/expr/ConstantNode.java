@@ -3,30 +3,79 @@ package com.ledmington.javaparser.parser.expr;
 import java.math.BigInteger;
 import java.util.Objects;
 
+import com.ledmington.javaparser.parser.Span;
+
 public final class ConstantNode implements ExpressionNode {
 
-	private final BigInteger value;
+	// same representation as IntegerLiteral: bigValue is used only when the value does not fit in a long
+	private final long value;
+	private final BigInteger bigValue;
 	private final boolean declaredAsLong;
+	// how the constant was written in the source, if known: it does not take part in equality
+	private final String spelling;
+	private final long span;
 
-	public ConstantNode(final BigInteger value, final boolean declaredAsLong) {
-		this.value = Objects.requireNonNull(value);
+	public ConstantNode(final long value, final boolean declaredAsLong, final String spelling, final long span) {
+		this.value = value;
+		this.bigValue = null;
+		this.declaredAsLong = declaredAsLong;
+		this.spelling = spelling;
+		this.span = span;
+	}
+
+	public ConstantNode(final long value, final boolean declaredAsLong, final String spelling) {
+		this(value, declaredAsLong, spelling, Span.UNKNOWN);
+	}
+
+	public ConstantNode(final long value, final boolean declaredAsLong) {
+		this(value, declaredAsLong, null);
+	}
+
+	public ConstantNode(
+			final BigInteger value, final boolean declaredAsLong, final String spelling, final long span) {
+		Objects.requireNonNull(value);
+		final boolean fits = value.bitLength() < Long.SIZE;
+		this.value = fits ? value.longValue() : 0L;
+		this.bigValue = fits ? null : value;
 		this.declaredAsLong = declaredAsLong;
+		this.spelling = spelling;
+		this.span = span;
+	}
+
+	public ConstantNode(final BigInteger value, final boolean declaredAsLong, final String spelling) {
+		this(value, declaredAsLong, spelling, Span.UNKNOWN);
+	}
+
+	public ConstantNode(final BigInteger value, final boolean declaredAsLong) {
+		this(value, declaredAsLong, null);
+	}
+
+	public BigInteger value() {
+		return bigValue == null ? BigInteger.valueOf(value) : bigValue;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
 	public String toJava() {
-		return value.toString(10) + (declaredAsLong ? "L" : "");
+		if (spelling != null) {
+			return spelling;
+		}
+		return (bigValue == null ? Long.toString(value) : bigValue.toString(10)) + (declaredAsLong ? "L" : "");
 	}
 
 	@Override
 	public String toString() {
-		return "ConstantNode(" + value + (declaredAsLong ? "L" : "") + ")";
+		return "ConstantNode(" + (bigValue == null ? value : bigValue) + (declaredAsLong ? "L" : "") + ")";
 	}
 
 	@Override
 	public int hashCode() {
 		int h = 17;
-		h = 31 * h + value.hashCode();
+		h = 31 * h + (bigValue == null ? Long.hashCode(value) : bigValue.hashCode());
 		h = 31 * h + (declaredAsLong ? 1 : 0);
 		return h;
 	}
@@ -43,6 +92,8 @@ public final class ConstantNode implements ExpressionNode {
 			return false;
 		}
 		final ConstantNode cn = (ConstantNode) other;
-		return this.value.equals(cn.value) && this.declaredAsLong == cn.declaredAsLong;
+		return this.value == cn.value
+				&& Objects.equals(this.bigValue, cn.bigValue)
+				&& this.declaredAsLong == cn.declaredAsLong;
 	}
 }
@@ -0,0 +1,114 @@
+package com.ledmington.javaparser.parser.expr;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Iterative traversals of expression trees, for the nodes which have other expressions inside: each of them keeps
+ * its own stack on the heap, so that the depth of a tree is not limited by the size of the thread stack. The other
+ * nodes are leaves, and use their own methods.
+ */
+final class ExpressionNodes {
+
+	private ExpressionNodes() {}
+
+	private static boolean isLeaf(final ExpressionNode node) {
+		return !(node instanceof BinaryNode) && !(node instanceof BracketNode);
+	}
+
+	static String toJava(final ExpressionNode root) {
+		final StringBuilder sb = new StringBuilder();
+		// either nodes still to print or pieces of text to append as they are
+		final Deque<Object> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			final Object top = stack.pop();
+			switch (top) {
+				case String s -> sb.append(s);
+				case BinaryNode bn -> {
+					stack.push(bn.rhs());
+					stack.push(bn.operator());
+					stack.push(bn.lhs());
+				}
+				case BracketNode bn -> {
+					stack.push(")");
+					stack.push(bn.expr());
+					stack.push("(");
+				}
+				case ExpressionNode leaf -> sb.append(leaf.toJava());
+				default -> throw new AssertionError();
+			}
+		}
+		return sb.toString();
+	}
+
+	// The same as the classic 17/31 recursive hash code, computed in post-order.
+	static int hashCode(final ExpressionNode root) {
+		final Deque<ExpressionNode> toVisit = new ArrayDeque<>();
+		// nodes whose children have already been pushed, to be combined when they are found again
+		final Deque<ExpressionNode> toCombine = new ArrayDeque<>();
+		final Deque<Integer> hashes = new ArrayDeque<>();
+		toVisit.push(root);
+		while (!toVisit.isEmpty()) {
+			final ExpressionNode node = toVisit.pop();
+			if (isLeaf(node)) {
+				hashes.push(node.hashCode());
+			} else if (!toCombine.isEmpty() && toCombine.peek() == node) {
+				toCombine.pop();
+				if (node instanceof BinaryNode) {
+					final int rhs = hashes.pop();
+					final int lhs = hashes.pop();
+					hashes.push(31 * (31 * 17 + lhs) + rhs);
+				} else {
+					hashes.push(31 * 17 + hashes.pop());
+				}
+			} else {
+				toCombine.push(node);
+				toVisit.push(node);
+				if (node instanceof BinaryNode bn) {
+					toVisit.push(bn.rhs());
+					toVisit.push(bn.lhs());
+				} else {
+					toVisit.push(((BracketNode) node).expr());
+				}
+			}
+		}
+		return hashes.pop();
+	}
+
+	static boolean equals(final ExpressionNode a, final ExpressionNode b) {
+		// pairs of nodes which must be equal, pushed one after the other
+		final Deque<ExpressionNode> stack = new ArrayDeque<>();
+		stack.push(a);
+		stack.push(b);
+		while (!stack.isEmpty()) {
+			final ExpressionNode y = stack.pop();
+			final ExpressionNode x = stack.pop();
+			if (x == y) {
+				continue;
+			}
+			if (!x.getClass().equals(y.getClass())) {
+				return false;
+			}
+			switch (x) {
+				case BinaryNode bx -> {
+					final BinaryNode by = (BinaryNode) y;
+					stack.push(bx.rhs());
+					stack.push(by.rhs());
+					stack.push(bx.lhs());
+					stack.push(by.lhs());
+				}
+				case BracketNode bx -> {
+					stack.push(bx.expr());
+					stack.push(((BracketNode) y).expr());
+				}
+				default -> {
+					if (!x.equals(y)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+}
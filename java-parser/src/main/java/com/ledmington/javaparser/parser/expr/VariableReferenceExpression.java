@@ -2,15 +2,28 @@ package com.ledmington.javaparser.parser.expr;
 
 import java.util.Objects;
 
+import com.ledmington.javaparser.parser.Span;
+
 public final class VariableReferenceExpression implements ExpressionNode {
 
 	private final String variableName;
+	private final long span;
 
 	public VariableReferenceExpression(final String variableName) {
+		this(variableName, Span.UNKNOWN);
+	}
+
+	public VariableReferenceExpression(final String variableName, final long span) {
 		this.variableName = Objects.requireNonNull(variableName);
 		if (variableName.isBlank() || variableName.isEmpty()) {
 			throw new IllegalArgumentException(String.format("Invalid variable name '%s'", variableName));
 		}
+		this.span = span;
+	}
+
+	@Override
+	public long span() {
+		return span;
 	}
 
 	@Override
@@ -22,4 +35,25 @@ public final class VariableReferenceExpression implements ExpressionNode {
 	public String toString() {
 		return "VariableReference(" + variableName + ")";
 	}
+
+	@Override
+	public int hashCode() {
+		int h = 17;
+		h = 31 * h + variableName.hashCode();
+		return h;
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (other == null) {
+			return false;
+		}
+		if (this == other) {
+			return true;
+		}
+		if (!this.getClass().equals(other.getClass())) {
+			return false;
+		}
+		return this.variableName.equals(((VariableReferenceExpression) other).variableName);
+	}
 }
@@ -0,0 +1,76 @@
+package com.ledmington.javaparser.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+final class TestIdentifierTable {
+
+	@Test
+	void sameSpanSameInstance() {
+		final IdentifierTable table = new IdentifierTable();
+		final char[] code = "String x = y; String".toCharArray();
+		final JavaID first = table.intern(code, 0, 6);
+		assertEquals(new JavaID("String"), first);
+		assertSame(first, table.intern(code, 14, 20));
+		assertSame(first, table.intern("String"));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	void manyNames() {
+		final IdentifierTable table = new IdentifierTable();
+		for (int i = 0; i < 10_000; i++) {
+			table.intern("name" + i);
+		}
+		assertEquals(10_000, table.size());
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(new JavaID("name" + i), table.intern("name" + i));
+		}
+		assertEquals(10_000, table.size());
+	}
+
+	@Test
+	void sharedBetweenLexers() {
+		final IdentifierTable table = new IdentifierTable();
+		final TokenBuffer a = JavaLexer.lex("int value;".toCharArray(), table);
+		final TokenBuffer b = JavaLexer.lex("return value;".toCharArray(), table);
+		assertSame(a.token(1), b.token(1));
+	}
+
+	@Test
+	void concurrentInterning() throws InterruptedException, ExecutionException {
+		final IdentifierTable table = new IdentifierTable();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<JavaID>>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					final List<JavaID> ids = new ArrayList<>();
+					for (int i = 0; i < 5_000; i++) {
+						ids.add(table.intern("id" + i));
+					}
+					return ids;
+				}));
+			}
+			final List<JavaID> expected = futures.getFirst().get();
+			for (final Future<List<JavaID>> f : futures) {
+				final List<JavaID> actual = f.get();
+				for (int i = 0; i < expected.size(); i++) {
+					assertSame(expected.get(i), actual.get(i));
+				}
+			}
+			assertEquals(5_000, table.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
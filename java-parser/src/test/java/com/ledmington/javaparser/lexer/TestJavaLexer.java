@@ -1,15 +1,21 @@
 package com.ledmington.javaparser.lexer;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 final class TestJavaLexer {
 
@@ -125,6 +131,13 @@ final class TestJavaLexer {
 				Arguments.of("==", List.of(JavaSymbols.DOUBLE_EQUAL)),
 				Arguments.of("@", List.of(JavaSymbols.AT_SIGN)),
 				Arguments.of("->", List.of(JavaSymbols.ARROW)),
+				Arguments.of("!=", List.of(JavaSymbols.NOT_EQUAL)),
+				Arguments.of("::", List.of(JavaSymbols.DOUBLE_COLON)),
+				Arguments.of("...", List.of(JavaSymbols.ELLIPSIS)),
+				Arguments.of("..", List.of(JavaSymbols.DOT, JavaSymbols.DOT)),
+				Arguments.of("....", List.of(JavaSymbols.ELLIPSIS, JavaSymbols.DOT)),
+				Arguments.of(">>>>=", List.of(JavaSymbols.UNSIGNED_RIGHT_SHIFT, JavaSymbols.GREATER_OR_EQUAL)),
+				Arguments.of("!==", List.of(JavaSymbols.NOT_EQUAL, JavaSymbols.EQUAL)),
 				// integer/long literals
 				Arguments.of("-1_2_3_4", List.of(JavaSymbols.MINUS, new IntegerLiteral(BigInteger.valueOf(1234)))),
 				Arguments.of("-12", List.of(JavaSymbols.MINUS, new IntegerLiteral(BigInteger.valueOf(12)))),
@@ -144,11 +157,27 @@ final class TestJavaLexer {
 				Arguments.of(
 						"0x0123456789abcdefL",
 						List.of(new IntegerLiteral(BigInteger.valueOf(81985529216486895L), true))),
+				Arguments.of("0X1F", List.of(new IntegerLiteral(31L))),
+				Arguments.of("0xFF_ff", List.of(new IntegerLiteral(65535L))),
+				Arguments.of("0x7fffffffffffffffL", List.of(new IntegerLiteral(Long.MAX_VALUE, true))),
+				Arguments.of(
+						"0xffffffffffffffffL",
+						List.of(new IntegerLiteral(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE), true))),
+				// octal literals
+				Arguments.of("017", List.of(new IntegerLiteral(15L))),
+				Arguments.of("0_17l", List.of(new IntegerLiteral(15L, true))),
 				// binary literals
 				Arguments.of("0b0", List.of(new IntegerLiteral(BigInteger.valueOf(0)))),
 				Arguments.of("0b0L", List.of(new IntegerLiteral(BigInteger.valueOf(0), true))),
 				Arguments.of("0b11010101", List.of(new IntegerLiteral(BigInteger.valueOf(213)))),
 				Arguments.of("0b11010101L", List.of(new IntegerLiteral(BigInteger.valueOf(213), true))),
+				Arguments.of("0B1101_0101", List.of(new IntegerLiteral(213L))),
+				// literals not fitting in a long
+				Arguments.of("9223372036854775807", List.of(new IntegerLiteral(Long.MAX_VALUE))),
+				Arguments.of("9223372036854775808", List.of(new IntegerLiteral(BigInteger.ONE.shiftLeft(63)))),
+				Arguments.of(
+						"123456789012345678901234567890",
+						List.of(new IntegerLiteral(new BigInteger("123456789012345678901234567890")))),
 				// char literals
 				Arguments.of("'a'", List.of(new CharLiteral("a"))),
 				Arguments.of("'\\n'", List.of(new CharLiteral("\\n"))),
@@ -166,9 +195,21 @@ final class TestJavaLexer {
 				Arguments.of("x1y", List.of(new JavaID("x1y"))),
 				Arguments.of("ID", List.of(new JavaID("ID"))),
 				Arguments.of("_x", List.of(new JavaID("_x"))),
+				Arguments.of("iff", List.of(new JavaID("iff"))),
+				Arguments.of("Class", List.of(new JavaID("Class"))),
+				Arguments.of("classes", List.of(new JavaID("classes"))),
+				Arguments.of("synchronizedx", List.of(new JavaID("synchronizedx"))),
 				Arguments.of("A{}",
 						List.of(new JavaID("A"), JavaSymbols.LEFT_CURLY_BRACKET, JavaSymbols.RIGHT_CURLY_BRACKET)),
-				Arguments.of("Another_ID", List.of(new JavaID("Another_ID"))))
+				Arguments.of("Another_ID", List.of(new JavaID("Another_ID"))),
+				// unicode escapes
+				Arguments.of("\\u0061bc", List.of(new JavaID("abc"))),
+				Arguments.of("\\uuu0061bc", List.of(new JavaID("abc"))),
+				Arguments.of("\\u0070ublic", List.of(JavaKeywords.PUBLIC)),
+				Arguments.of("a\\u002b\\u003db", List.of(new JavaID("a"), JavaSymbols.PLUS_EQUAL, new JavaID("b"))),
+				Arguments.of("\\u002f\\u002a ignored */", List.of()),
+				Arguments.of("\\u0031_0", List.of(new IntegerLiteral(10))),
+				Arguments.of("\"\\u0041\"", List.of(new StringLiteral("\\u0041"))))
 				.flatMap(x -> {
 					final String code = (String) x.get()[0];
 					var tokens = x.get()[1];
@@ -182,8 +223,32 @@ final class TestJavaLexer {
 		assertEquals(tokens, JavaLexer.tokenize(sourceCode));
 	}
 
+	@ParameterizedTest
+	@MethodSource("correctJavaSourceCode")
+	void correctBuffer(final String sourceCode, final List<JavaToken> tokens) {
+		final TokenBuffer buffer = JavaLexer.lex(sourceCode);
+		assertEquals(tokens.size(), buffer.size());
+		for (int i = 0; i < buffer.size(); i++) {
+			assertEquals(tokens.get(i), buffer.token(i));
+		}
+		assertEquals(tokens, buffer.toList());
+	}
+
+	@ParameterizedTest
+	@MethodSource("correctJavaSourceCode")
+	void correctStream(final String sourceCode, final List<JavaToken> tokens) {
+		final TokenStream stream = JavaLexer.stream(sourceCode);
+		for (final JavaToken t : tokens) {
+			assertTrue(stream.hasNext());
+			assertEquals(t, stream.token(0));
+			stream.move();
+		}
+		assertFalse(stream.hasNext());
+	}
+
 	private static Stream<Arguments> wrongJavaSourceCode() {
-		return Stream.of("#", "\"a", "\"", "'a", "'").map(Arguments::of);
+		return Stream.of("#", "\"a", "\"", "'a", "'", "''", "09", "0_8L", "\\\\u0061", "\\u0023", "/* a", "int x; /*/")
+				.map(Arguments::of);
 	}
 
 	@ParameterizedTest
@@ -193,8 +258,207 @@ final class TestJavaLexer {
 			JavaLexer.tokenize(sourceCode);
 			// if we reach the end without exceptions we fail
 			Assertions.fail();
-		} catch (final UnknownTokenException | InvalidLiteralException e) {
+		} catch (final UnknownTokenException | InvalidLiteralException | UnterminatedCommentException e) {
 			// ignored because it is what we expect
 		}
 	}
+
+	@Test
+	void streamsCanSkipErrors() {
+		final char[] code = "int # x = 09L; char c = ''; 1 /* 2".toCharArray();
+		final List<Integer> errors = new ArrayList<>();
+		final TokenStream stream = JavaLexer.stream(code, 0, code.length, null, e -> errors.add(e.start()));
+		final List<JavaToken> tokens = new ArrayList<>();
+		for (; stream.hasNext(); stream.move()) {
+			tokens.add(stream.token(0));
+		}
+		assertEquals(
+				List.of(
+						JavaKeywords.INT,
+						new JavaID("x"),
+						JavaSymbols.EQUAL,
+						JavaSymbols.SEMICOLON,
+						JavaKeywords.CHAR,
+						new JavaID("c"),
+						JavaSymbols.EQUAL,
+						JavaSymbols.SEMICOLON,
+						new IntegerLiteral(1)),
+				tokens);
+		final String s = new String(code);
+		assertEquals(List.of(s.indexOf('#'), s.indexOf("09"), s.indexOf("''"), s.indexOf("/*")), errors);
+	}
+
+	@Test
+	void unterminatedCommentsKeepTheirStart() {
+		final String code = "int x;\n/* int y;";
+		try {
+			JavaLexer.lex(code);
+			Assertions.fail();
+		} catch (final UnterminatedCommentException e) {
+			assertEquals(code.indexOf("/*"), e.start());
+			assertEquals(code.length(), e.end());
+			assertEquals("Unterminated block comment at line 2, column 1", e.getMessage());
+		}
+	}
+
+	@Test
+	void errorsKeepTheirPosition() {
+		final String code = "int x;\n  int y = 09;";
+		try {
+			JavaLexer.tokenize(code);
+			Assertions.fail();
+		} catch (final InvalidLiteralException e) {
+			assertEquals(code.indexOf("09"), e.start());
+			assertEquals(code.indexOf("09") + 2, e.end());
+			assertEquals(2, e.line());
+			assertEquals(11, e.column());
+			assertEquals("'09' is an invalid literal at line 2, column 11", e.getMessage());
+			assertEquals(0, e.getStackTrace().length);
+		}
+	}
+
+	private static Stream<Arguments> edits() {
+		final String code = "public class A {\n\t/* comment */\n\tint x = 0x1f;\n\tString s = \"a b\";\n}";
+		return Stream.of(
+						new TextEdit(0, 0, " "),
+						new TextEdit(0, 6, "private"),
+						new TextEdit(13, 1, "Abc"),
+						new TextEdit(14, 1, ""),
+						new TextEdit(18, 2, ""),
+						new TextEdit(23, 2, "*/"),
+						new TextEdit(32, 0, "//"),
+						new TextEdit(40, 1, "+="),
+						new TextEdit(44, 1, "L;"),
+						new TextEdit(61, 0, "\" + \""),
+						new TextEdit(code.length(), 0, "\n"))
+				.map(e -> Arguments.of(code, e));
+	}
+
+	@ParameterizedTest
+	@MethodSource("edits")
+	void relexMatchesFullLexing(final String sourceCode, final TextEdit edit) {
+		final char[] newCode = edit.applyTo(sourceCode.toCharArray());
+		final TokenBuffer expected = JavaLexer.lex(newCode);
+		final TokenBuffer actual = JavaLexer.relex(JavaLexer.lex(sourceCode), edit, newCode);
+		assertEquals(expected.toList(), actual.toList());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.start(i), actual.start(i));
+			assertEquals(expected.length(i), actual.length(i));
+		}
+		assertEquals(expected.triviaCount(), actual.triviaCount());
+		for (int i = 0; i < expected.triviaCount(); i++) {
+			assertEquals(expected.triviaKind(i), actual.triviaKind(i));
+			assertEquals(expected.triviaStart(i), actual.triviaStart(i));
+			assertEquals(expected.triviaEnd(i), actual.triviaEnd(i));
+		}
+		for (int i = 0; i <= expected.size(); i++) {
+			assertEquals(expected.firstTrivia(i), actual.firstTrivia(i));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {32, 47, 66})
+	void relexRejectsUnterminatedComments(final int offset) {
+		final String code = "public class A {\n\t/* comment */\n\tint x = 0x1f;\n\tString s = \"a b\";\n}";
+		final TextEdit edit = new TextEdit(offset, 0, "/*");
+		try {
+			JavaLexer.relex(JavaLexer.lex(code), edit, edit.applyTo(code.toCharArray()));
+			Assertions.fail();
+		} catch (final UnterminatedCommentException e) {
+			assertEquals(offset, e.start());
+		}
+	}
+
+	@Test
+	void trivia() {
+		final TokenBuffer buffer = JavaLexer.lex("// jformat off\nint/* a */x; /**/\n");
+		assertEquals(3, buffer.size());
+		assertEquals(
+				List.of(
+						TriviaKind.LINE_COMMENT,
+						TriviaKind.WHITESPACE,
+						TriviaKind.BLOCK_COMMENT,
+						TriviaKind.WHITESPACE,
+						TriviaKind.BLOCK_COMMENT,
+						TriviaKind.WHITESPACE),
+				Stream.iterate(0, i -> i < buffer.triviaCount(), i -> i + 1)
+						.map(buffer::triviaKind)
+						.toList());
+		assertEquals("// jformat off", buffer.triviaText(0));
+		assertEquals("/* a */", buffer.triviaText(2));
+
+		// 'int' owns the comment and the newline before it, 'x' the block comment and ';' nothing
+		assertEquals(0, buffer.firstTrivia(0));
+		assertEquals(2, buffer.firstTrivia(1));
+		assertEquals(3, buffer.firstTrivia(2));
+		assertEquals(3, buffer.firstTrivia(3));
+		assertEquals(buffer.source().length, buffer.triviaEnd(buffer.triviaCount() - 1));
+	}
+
+	@Test
+	void literalsKeepTheirSpelling() {
+		final List<JavaToken> tokens = JavaLexer.tokenize("0xFF_ff 1_000_000L 017 \"a\\tb\" '\\n'");
+		assertEquals("0xFF_ff", ((IntegerLiteral) tokens.get(0)).spelling());
+		assertEquals(new IntegerLiteral(0xFFFF), tokens.get(0));
+		assertEquals("1_000_000L", ((IntegerLiteral) tokens.get(1)).spelling());
+		assertEquals("017", ((IntegerLiteral) tokens.get(2)).spelling());
+		assertEquals("\"a\\tb\"", ((StringLiteral) tokens.get(3)).spelling());
+		assertEquals(new StringLiteral("a\\tb").hashCode(), tokens.get(3).hashCode());
+		assertEquals("'\\n'", ((CharLiteral) tokens.get(4)).spelling());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 5, 8, 13, 21, 34})
+	void parallelLexingMatchesSequential(final int chunkSize) {
+		// comments and literals spanning many chunks make most speculated chunk starts wrong
+		final char[] code = String.join(
+						"\n",
+						"/* a block comment",
+						" * spanning lines */",
+						"public class A {",
+						"\t// int y = 2;",
+						"\tString s = \"a // b /* c\";",
+						"\tchar c = '/';",
+						"\tint x = 0x1f >>> 3 != 1_000L;",
+						"}",
+						"")
+				.toCharArray();
+		final TokenBuffer expected = JavaLexer.lex(code);
+		final TokenBuffer actual = JavaLexer.lexParallel(code, null, ForkJoinPool.commonPool(), chunkSize);
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.kind(i), actual.kind(i));
+			assertEquals(expected.start(i), actual.start(i));
+			assertEquals(expected.length(i), actual.length(i));
+			assertEquals(expected.firstTrivia(i), actual.firstTrivia(i));
+		}
+		assertEquals(expected.triviaCount(), actual.triviaCount());
+		for (int i = 0; i < expected.triviaCount(); i++) {
+			assertEquals(expected.triviaKind(i), actual.triviaKind(i));
+			assertEquals(expected.triviaStart(i), actual.triviaStart(i));
+			assertEquals(expected.triviaEnd(i), actual.triviaEnd(i));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 5, 8, 13, 21, 34})
+	void parallelLexingRejectsUnterminatedComments(final int chunkSize) {
+		final String code = "public class A {\n\tint x = 1;\n\t/* int y = 2;\n\tint z = 3;\n}\n";
+		try {
+			JavaLexer.lexParallel(code.toCharArray(), null, ForkJoinPool.commonPool(), chunkSize);
+			Assertions.fail();
+		} catch (final UnterminatedCommentException e) {
+			assertEquals(code.indexOf("/*"), e.start());
+		}
+	}
+
+	@Test
+	void unicodeEscapesKeepSourceOffsets() {
+		final TokenBuffer buffer = JavaLexer.lex("int \\u0078 = 1;");
+		assertEquals(5, buffer.size());
+		assertEquals(new JavaID("x"), buffer.token(1));
+		assertEquals(4, buffer.start(1));
+		assertEquals(6, buffer.length(1));
+		assertEquals(11, buffer.start(2));
+	}
 }
@@ -0,0 +1,131 @@
+package com.ledmington.javaparser.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+final class TestSourceReader {
+
+	private static Stream<Arguments> validSources() {
+		return Stream.of(
+						"",
+						"class A{}",
+						// 2-byte sequences
+						"String s = \"àèéìòù\";",
+						// 3-byte sequences
+						"String euro = \"€\"; int 変数 = 1;",
+						// 4-byte sequences, which become surrogate pairs
+						"String s = \"😀 𐀀 \uDBFF\uDFFF\";")
+				.map(Arguments::of);
+	}
+
+	@ParameterizedTest
+	@MethodSource("validSources")
+	void decodesLikeTheJdk(final String code) throws MalformedInputException {
+		assertEquals(code, new String(SourceReader.decode(code.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	void supplementaryCodePointsBecomeSurrogatePairs() throws MalformedInputException {
+		final char[] chars = SourceReader.decode(new byte[] {(byte) 0xf0, (byte) 0x9f, (byte) 0x98, (byte) 0x80});
+		assertEquals(2, chars.length);
+		assertEquals(0x1f600, Character.toCodePoint(chars[0], chars[1]));
+	}
+
+	@Test
+	void skipsTheByteOrderMark() throws MalformedInputException {
+		final byte[] bytes = {(byte) 0xef, (byte) 0xbb, (byte) 0xbf, 'i', 'n', 't'};
+		assertEquals("int", new String(SourceReader.decode(bytes)));
+		// only a leading one
+		final byte[] inner = {'a', (byte) 0xef, (byte) 0xbb, (byte) 0xbf};
+		assertEquals("a\uFEFF", new String(SourceReader.decode(inner)));
+	}
+
+	@Test
+	void decodesOnlyBetweenPositionAndLimit() throws MalformedInputException {
+		final ByteBuffer bytes = ByteBuffer.wrap("xxclass A{}yy".getBytes(StandardCharsets.UTF_8));
+		bytes.position(2).limit(11);
+		assertEquals("class A{}", new String(SourceReader.decode(bytes)));
+	}
+
+	private static Stream<Arguments> malformedSources() {
+		return Stream.of(
+						// lone continuation byte
+						new byte[] {'a', (byte) 0x80},
+						// invalid leading bytes
+						new byte[] {(byte) 0xff},
+						new byte[] {(byte) 0xf5, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+						// truncated sequences
+						new byte[] {(byte) 0xc3},
+						new byte[] {'a', (byte) 0xe2, (byte) 0x82},
+						new byte[] {(byte) 0xf0, (byte) 0x9f, (byte) 0x98},
+						// a continuation byte missing in the middle
+						new byte[] {(byte) 0xe2, 'a', (byte) 0xac},
+						// overlong encodings
+						new byte[] {(byte) 0xc0, (byte) 0xaf},
+						new byte[] {(byte) 0xc1, (byte) 0xbf},
+						new byte[] {(byte) 0xe0, (byte) 0x80, (byte) 0xaf},
+						new byte[] {(byte) 0xf0, (byte) 0x80, (byte) 0x80, (byte) 0xaf},
+						// encoded surrogates
+						new byte[] {(byte) 0xed, (byte) 0xa0, (byte) 0x80},
+						// past the last code point
+						new byte[] {(byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80})
+				.map(Arguments::of);
+	}
+
+	@ParameterizedTest
+	@MethodSource("malformedSources")
+	void malformedSequencesAreRejected(final byte[] bytes) {
+		try {
+			SourceReader.decode(bytes);
+			// malformed input is never replaced
+			Assertions.fail();
+		} catch (final MalformedInputException e) {
+			// ignored because it is what we expect
+		}
+	}
+
+	private static char[] readFile(final byte[] bytes) throws IOException {
+		final Path file = Files.createTempFile("source", ".java");
+		try {
+			Files.write(file, bytes);
+			return SourceReader.read(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void smallFilesAreRead() throws IOException {
+		final String code = "class A{ String s = \"€😀\"; }";
+		final byte[] bytes = ("\uFEFF" + code).getBytes(StandardCharsets.UTF_8);
+		assertEquals(code, new String(readFile(bytes)));
+	}
+
+	@Test
+	void bigFilesAreMapped() throws IOException {
+		final StringBuilder sb = new StringBuilder("\uFEFFclass A{\n");
+		for (int i = 0; sb.length() < 100_000; i++) {
+			sb.append("\tString s").append(i).append(" = \"àé€😀\";\n");
+		}
+		final byte[] bytes = sb.append('}').toString().getBytes(StandardCharsets.UTF_8);
+		// over the size above which files are mapped instead of read
+		assertTrue(bytes.length > 64 * 1024);
+		final char[] mapped = readFile(bytes);
+		assertEquals(new String(SourceReader.decode(bytes)), new String(mapped));
+		assertEquals(sb.substring(1), new String(mapped));
+	}
+}
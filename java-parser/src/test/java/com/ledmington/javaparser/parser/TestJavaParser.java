@@ -1,22 +1,37 @@
 package com.ledmington.javaparser.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
+import com.ledmington.javaparser.lexer.IntegerLiteral;
+import com.ledmington.javaparser.lexer.JavaKeywords;
+import com.ledmington.javaparser.lexer.JavaLexer;
+import com.ledmington.javaparser.lexer.JavaSymbols;
+import com.ledmington.javaparser.lexer.TextEdit;
+import com.ledmington.javaparser.lexer.TokenBuffer;
+import com.ledmington.javaparser.parser.expr.BracketNode;
 import com.ledmington.javaparser.parser.expr.ConstantNode;
 import com.ledmington.javaparser.parser.expr.DivideNode;
+import com.ledmington.javaparser.parser.expr.ExpressionNode;
 import com.ledmington.javaparser.parser.expr.MinusNode;
 import com.ledmington.javaparser.parser.expr.MultiplyNode;
 import com.ledmington.javaparser.parser.expr.PlusNode;
+import com.ledmington.javaparser.parser.expr.VariableReferenceExpression;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 final class TestJavaParser {
 
@@ -87,6 +102,68 @@ final class TestJavaParser {
 		assertEquals(expected, actual);
 	}
 
+	private static ConstantNode constant(final long value) {
+		return new ConstantNode(value, false);
+	}
+
+	private static Stream<Arguments> expressions() {
+		return Stream.of(
+				Arguments.of("1", constant(1)),
+				Arguments.of("1-2-3", new MinusNode(new MinusNode(constant(1), constant(2)), constant(3))),
+				Arguments.of("8/4/2", new DivideNode(new DivideNode(constant(8), constant(4)), constant(2))),
+				Arguments.of("1-2+3", new PlusNode(new MinusNode(constant(1), constant(2)), constant(3))),
+				Arguments.of(
+						"1+2*3-4",
+						new MinusNode(new PlusNode(constant(1), new MultiplyNode(constant(2), constant(3))), constant(4))),
+				Arguments.of(
+						"a*(b-c)/d",
+						new DivideNode(
+								new MultiplyNode(
+										new VariableReferenceExpression("a"),
+										new BracketNode(new MinusNode(
+												new VariableReferenceExpression("b"),
+												new VariableReferenceExpression("c")))),
+								new VariableReferenceExpression("d"))));
+	}
+
+	@ParameterizedTest
+	@MethodSource("expressions")
+	void expressions(final String expression, final ExpressionNode expected) {
+		final JavaNode actual = JavaParser.parse("class A{int x=" + expression + ";}");
+		assertEquals(
+				new JavaClassDeclaration(
+						PackageDeclarationNode.DEFAULT_PACKAGE,
+						List.of(),
+						List.of(),
+						"A",
+						null,
+						List.of(),
+						List.of(new FieldDeclarationNode(List.of(), PrimitiveTypes.INT, "x", expected)),
+						List.of()),
+				actual);
+	}
+
+	private static Stream<Arguments> deepExpressions() {
+		final int depth = 100_000;
+		return Stream.of(
+						String.join("+", Collections.nCopies(depth, "x")),
+						"(".repeat(depth) + "x" + ")".repeat(depth),
+						"x" + "*(x".repeat(depth) + ")".repeat(depth))
+				.map(Arguments::of);
+	}
+
+	// deep enough to overflow the stack if each level took a stack frame
+	@ParameterizedTest
+	@MethodSource("deepExpressions")
+	void deepExpressions(final String expression) {
+		final String code = "class A{int x=" + expression + ";}";
+		final JavaNode first = JavaParser.parse(code);
+		final JavaNode second = JavaParser.parse(code);
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertTrue(first.toJava().contains("int x=" + expression + ";"));
+	}
+
 	private static Stream<Arguments> wrongJavaSourceCode() {
 		return Stream.of(
 				// wrong package declarations
@@ -99,7 +176,11 @@ final class TestJavaParser {
 				"import 1;",
 				// wrong class declarations
 				"clazz",
-				"class A}{")
+				"class A}{",
+				// wrong expressions
+				"class A{int x=;}",
+				"class A{int x=1+;}",
+				"class A{int x=(1;}")
 				.map(Arguments::of);
 	}
 
@@ -113,4 +194,382 @@ final class TestJavaParser {
 			// ignored since it is what we expect
 		}
 	}
+
+	private static Stream<Arguments> reparsedEdits() {
+		final String code =
+				"class A{\n\tint x=1+2;\n\tvoid m(){return x*3;}\n\t/* c */ int y;\n\tint f(int q){a.b(q);}\n}";
+		return Stream.of(
+						new TextEdit(code.indexOf("1+2"), 1, "7"),
+						new TextEdit(code.indexOf("x*3"), 1, "(x+1)"),
+						new TextEdit(code.indexOf("\tvoid"), 0, "int w;"),
+						new TextEdit(code.indexOf("/* c */"), 7, ""),
+						new TextEdit(code.indexOf("/* c */") + 2, 0, "*/ int z; /*"),
+						new TextEdit(code.indexOf("int y;"), 6, "void n(){}void o();"),
+						new TextEdit(code.indexOf("a.b(q);"), 7, ""),
+						new TextEdit(code.lastIndexOf('}'), 0, "int last;"),
+						new TextEdit(code.indexOf('{') + 1, 0, "int first;"),
+						new TextEdit(code.indexOf("class A"), 7, "class B"))
+				.map(e -> Arguments.of(code, e));
+	}
+
+	@ParameterizedTest
+	@MethodSource("reparsedEdits")
+	void reparseMatchesFullParsing(final String code, final TextEdit edit) {
+		final char[] newCode = edit.applyTo(code.toCharArray());
+		final ParsedSource reparsed = JavaParser.reparse(JavaParser.parseSource(code.toCharArray()), edit, newCode);
+		assertEquals(JavaParser.parse(newCode).toJava(), reparsed.declaration().toJava());
+	}
+
+	@Test
+	void reparseReusesUntouchedMembers() {
+		final String code = "class A{int x=1;void m(){return x;}int y=2;}";
+		final int offset = code.indexOf("return x") + 7;
+		final TextEdit edit = new TextEdit(offset, 1, "x+1");
+		final ParsedSource before = JavaParser.parseSource(code.toCharArray());
+		final ParsedSource after = JavaParser.reparse(before, edit, edit.applyTo(code.toCharArray()));
+		final JavaClassDeclaration b = before.declaration();
+		final JavaClassDeclaration a = after.declaration();
+		assertSame(b.fields().get(0), a.fields().get(0));
+		assertNotSame(b.methods().get(0), a.methods().get(0));
+		// moved by the edit, so parsed again with its new span
+		assertNotSame(b.fields().get(1), a.fields().get(1));
+		assertEquals("void m(){return x+1;}", a.methods().get(0).toJava().strip());
+	}
+
+	@Test
+	void lazyMethodBodies() {
+		final String code = "class A{int x=1;void m(){return x+1;}int f(int y){a.b(y);a.c=y*2;return y;}void n();}";
+		final JavaClassDeclaration lazy = (JavaClassDeclaration) JavaParser.parseLazily(code);
+		final JavaClassDeclaration fromBuffer = (JavaClassDeclaration) JavaParser.parseLazily(JavaLexer.lex(code));
+		for (final JavaClassDeclaration jcd : List.of(lazy, fromBuffer)) {
+			assertTrue(jcd.methods().stream()
+					.filter(m -> !m.name().equals("n"))
+					.noneMatch(MethodDeclarationNode::isBodyParsed));
+			assertEquals(JavaParser.parse(code).toJava(), jcd.toJava());
+			assertTrue(jcd.methods().stream().allMatch(MethodDeclarationNode::isBodyParsed));
+		}
+	}
+
+	@Test
+	void parallelParsing() {
+		final StringBuilder sb = new StringBuilder("class A{");
+		for (int i = 0; i < 100; i++) {
+			sb.append("int x").append(i).append("=").append(i).append("*(y+1);");
+			sb.append("int m").append(i).append("(int y){a.b(y,").append(i).append(");return y-x").append(i)
+					.append(";}");
+		}
+		final char[] code = sb.append('}').toString().toCharArray();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final JavaNode expected = JavaParser.parse(code);
+			assertEquals(expected.toJava(), JavaParser.parseParallel(code, null, pool).toJava());
+			assertEquals(expected.toJava(), JavaParser.parseParallel(JavaLexer.lex(code), pool).toJava());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void parallelParsingReportsTheFirstError() {
+		final String code = "class A{int x=1;void m(){return 1+;}int y=(2;void n(){return;}}";
+		try {
+			JavaParser.parseParallel(code.toCharArray(), null);
+			Assertions.fail();
+		} catch (final UnexpectedTokenException | TooFewTokensException e) {
+			assertEquals(code.indexOf("+;") + 1, e.start());
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"class C { void f(){ a.b } }", "class C { int y = 1+2*(3-a> } void m(){} }"})
+	void parallelParsingReportsTheSerialError(final String code) {
+		try {
+			JavaParser.parse(code);
+			Assertions.fail();
+		} catch (final UnexpectedTokenException expected) {
+			try {
+				JavaParser.parseParallel(code.toCharArray(), null);
+				Assertions.fail();
+			} catch (final UnexpectedTokenException e) {
+				assertEquals(expected.getMessage(), e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	void lazyMethodBodiesFailOnAccess() {
+		final String code = "class A{void m(){return 1+;}}";
+		final JavaClassDeclaration jcd = (JavaClassDeclaration) JavaParser.parseLazily(code);
+		final MethodDeclarationNode m = jcd.methods().getFirst();
+		try {
+			m.body();
+			Assertions.fail();
+		} catch (final UnexpectedTokenException e) {
+			assertEquals(code.indexOf("+;") + 1, e.start());
+		}
+	}
+
+	@Test
+	void lazyMethodBodiesFailAsWhenParsedInPlace() {
+		final String code = "class C { void f(){ a.b } }";
+		final JavaClassDeclaration jcd = (JavaClassDeclaration) JavaParser.parseLazily(code);
+		try {
+			jcd.methods().getFirst().body();
+			Assertions.fail();
+		} catch (final UnexpectedTokenException e) {
+			assertEquals(code.indexOf("} }"), e.start());
+			assertEquals(List.of(JavaSymbols.EQUAL), e.expected());
+			assertEquals(JavaSymbols.RIGHT_CURLY_BRACKET, e.found());
+		}
+	}
+
+	@Test
+	void errorsKeepTheirPosition() {
+		final String code = "class A{\n\tint x=1 2;}";
+		try {
+			JavaParser.parse(code);
+			Assertions.fail();
+		} catch (final UnexpectedTokenException e) {
+			assertEquals(code.indexOf('2'), e.start());
+			assertEquals(code.indexOf('2') + 1, e.end());
+			assertEquals(List.of(JavaSymbols.SEMICOLON), e.expected());
+			assertEquals(new IntegerLiteral(2), e.found());
+			assertEquals(2, e.line());
+			assertEquals(10, e.column());
+			assertEquals(0, e.getStackTrace().length);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("wrongJavaSourceCode")
+	void invalidParsingIsRecovered(final String sourceCode) {
+		final ParseResult result = JavaParser.parseRecovering(sourceCode);
+		assertTrue(result.hasErrors());
+		for (final Diagnostic d : result.diagnostics()) {
+			assertTrue(d.offset() >= 0 && d.offset() <= sourceCode.length());
+		}
+	}
+
+	@Test
+	void recoveringFromValidCode() {
+		final String code = "package a.b;import c.d;public class A{int x=1+2;void m(){return x;}}";
+		final ParseResult result = JavaParser.parseRecovering(code);
+		assertEquals(List.of(), result.diagnostics());
+		assertEquals(JavaParser.parse(code).toJava(), result.declaration().toJava());
+	}
+
+	@Test
+	void recoveringKeepsValidMembers() {
+		final String code = "class A{int x=1+;int y=2;void m(){a.b(;return 1;}int z;}";
+		final ParseResult result = JavaParser.parseRecovering(code);
+		final JavaNode expected = new JavaClassDeclaration(
+				PackageDeclarationNode.DEFAULT_PACKAGE,
+				List.of(),
+				List.of(),
+				"A",
+				null,
+				List.of(),
+				List.of(
+						new FieldDeclarationNode(List.of(), PrimitiveTypes.INT, "y", new ConstantNode(2L, false)),
+						new FieldDeclarationNode(List.of(), PrimitiveTypes.INT, "z")),
+				List.of(new MethodDeclarationNode(
+						List.of(),
+						PrimitiveTypes.VOID,
+						"m",
+						List.of(),
+						List.of(new ReturnStatement(new ConstantNode(1L, false))))));
+		assertEquals(expected.toJava(), result.declaration().toJava());
+		assertEquals(2, result.diagnostics().size());
+		assertEquals(code.indexOf("+;") + 1, result.diagnostics().get(0).offset());
+		assertEquals(code.indexOf("(;") + 1, result.diagnostics().get(1).offset());
+	}
+
+	@ParameterizedTest
+	@ValueSource(
+			strings = {"class C { int x = 1; int y = ''; int z = 2; }", "class C { int x = 1; int y = #; int z = 2; }"})
+	void recoveringSkipsWhatCannotBeLexed(final String code) {
+		final ParseResult result = JavaParser.parseRecovering(code);
+		assertEquals(
+				JavaParser.parse("class C { int x = 1; int z = 2; }").toJava(),
+				result.declaration().toJava());
+		assertEquals(code.indexOf("y =") + 4, result.diagnostics().getFirst().offset());
+		assertEquals(null, result.diagnostics().getFirst().found());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "// x", "/* x */ "})
+	void recoveringFromEmptySources(final String code) {
+		final ParseResult result = JavaParser.parseRecovering(code);
+		assertEquals(null, result.declaration());
+		assertEquals(
+				List.of(new Diagnostic(
+						code.length(),
+						List.of(JavaKeywords.PACKAGE, JavaKeywords.IMPORT, JavaKeywords.CLASS),
+						null)),
+				result.diagnostics());
+	}
+
+	@Test
+	void recoveringReportsAMissingBraceOnce() {
+		final String code = "class A{void m(){return 1;";
+		assertEquals(
+				List.of(new Diagnostic(code.length(), List.of(JavaSymbols.RIGHT_CURLY_BRACKET), null)),
+				JavaParser.parseRecovering(code).diagnostics());
+	}
+
+	private static Stream<Arguments> flatTrees() {
+		return Stream.of(
+						"class A{}",
+						"package a.b;import c.d;import e.f.G;public abstract class A extends B implements C,D{}",
+						"class A{private static final int x=1+2*(3-4)/5;List<Map<K,V> >[] l;int y;}",
+						"class A{void m(){return x*3;}abstract void n();}",
+						"class A{int f(final int q,String[] s){a.b(q,2);;a.c=q;}}")
+				.map(Arguments::of);
+	}
+
+	@ParameterizedTest
+	@MethodSource("flatTrees")
+	void flatTreeMatchesParsing(final String code) {
+		final SyntaxTree tree = JavaParser.parseTree(code.toCharArray());
+		assertEquals(JavaParser.parse(code).toJava(), tree.node(tree.root()).toJava());
+		assertSame(tree.node(tree.root()), tree.node(tree.root()));
+	}
+
+	@Test
+	void flatTreeCursor() {
+		final String code = "class A{int x=(1+2)*y;}";
+		final TreeCursor cursor = JavaParser.parseTree(code.toCharArray()).cursor();
+		assertEquals(SyntaxKind.CLASS_DECLARATION, cursor.kind());
+		assertTrue(cursor.gotoFirstChild());
+		assertEquals(SyntaxKind.NAME, cursor.kind());
+		assertEquals("A", cursor.text());
+		assertTrue(cursor.gotoNextSibling());
+		assertEquals(SyntaxKind.FIELD_DECLARATION, cursor.kind());
+		assertEquals("int x=(1+2)*y;", cursor.text());
+		assertTrue(!cursor.gotoNextSibling());
+		assertTrue(cursor.gotoFirstChild());
+		assertEquals(SyntaxKind.PRIMITIVE_TYPE, cursor.kind());
+		assertSame(PrimitiveTypes.INT, cursor.node());
+		assertTrue(cursor.gotoNextSibling());
+		assertTrue(cursor.gotoNextSibling());
+		assertEquals(SyntaxKind.MULTIPLY, cursor.kind());
+		assertEquals(code.indexOf('('), cursor.startOffset());
+		assertEquals(code.indexOf(';'), cursor.endOffset());
+		assertTrue(cursor.gotoFirstChild());
+		assertEquals(SyntaxKind.BRACKETS, cursor.kind());
+		assertEquals(new BracketNode(new PlusNode(constant(1), constant(2))), cursor.node());
+		assertEquals(3, cursor.depth());
+		assertTrue(cursor.gotoParent());
+		assertTrue(cursor.gotoParent());
+		assertTrue(cursor.gotoParent());
+		assertTrue(!cursor.gotoParent());
+		assertEquals(SyntaxKind.CLASS_DECLARATION, cursor.kind());
+	}
+
+	private static Stream<Arguments> truncatedJavaSourceCode() {
+		return Stream.of(
+						"package",
+						"class A { A",
+						"class A { int x",
+						"class A { void m()",
+						"class A { void m(int",
+						"class A { List<",
+						"class A { void m(){ a.b",
+						"class A { int x = (1")
+				.map(Arguments::of);
+	}
+
+	@ParameterizedTest
+	@MethodSource({"wrongJavaSourceCode", "truncatedJavaSourceCode"})
+	void flatTreeInvalidParsing(final String sourceCode) {
+		final TokenBuffer tokens = JavaLexer.lex(sourceCode);
+		try {
+			JavaParser.parse(tokens);
+			Assertions.fail();
+		} catch (final UnexpectedTokenException | TooFewTokensException expected) {
+			try {
+				JavaParser.parseTree(tokens);
+				Assertions.fail();
+			} catch (final UnexpectedTokenException | TooFewTokensException e) {
+				assertEquals(expected.getClass(), e.getClass());
+				assertEquals(expected.getMessage(), e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	void flatTreeRejectsUnsupportedStatements() {
+		final String code = "class A { void m(){ x; } }";
+		for (final Runnable parse : List.<Runnable>of(
+				() -> JavaParser.parse(code), () -> JavaParser.parseTree(code.toCharArray()))) {
+			try {
+				parse.run();
+				Assertions.fail();
+			} catch (final IllegalArgumentException e) {
+				assertEquals("Parsed statement was null", e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	void sessionReusesItsBuffers() {
+		final ParserSession session = new ParserSession();
+		final String first = "package a;class A{int x=1+2;void m(){return x;}}";
+		final String second = "class B{List<C> l;}";
+		final SyntaxTree tree = session.parseTree(first.toCharArray());
+		final TokenBuffer tokens = tree.tokens();
+		assertEquals(JavaParser.parse(first).toJava(), tree.node(tree.root()).toJava());
+		assertSame(tree, session.parseTree(second.toCharArray()));
+		assertSame(tokens, tree.tokens());
+		assertEquals(JavaParser.parse(second).toJava(), tree.node(tree.root()).toJava());
+		assertEquals(JavaParser.parse(first).toJava(), session.parse(first.toCharArray()).toJava());
+		assertSame(ParserSession.current(), ParserSession.current());
+		session.reset();
+		assertEquals(0, tokens.size());
+		assertEquals(0, tokens.source().length);
+		assertEquals(0, tree.size());
+	}
+
+	private static String spanned(final String code, final JavaNode node) {
+		return code.substring(Span.start(node.span()), Span.end(node.span()));
+	}
+
+	@Test
+	void nodesKnowTheirSpan() {
+		final String code =
+				"package a.b;\nclass A{\n\tint x = (1+2) * y;\n\tvoid m(final int q){ a.b(q); return q; }\n}";
+		final SyntaxTree tree = JavaParser.parseTree(code.toCharArray());
+		for (final JavaNode root : List.of(JavaParser.parse(code), tree.node(tree.root()))) {
+			final JavaClassDeclaration jcd = (JavaClassDeclaration) root;
+			assertEquals(code, spanned(code, jcd));
+			final FieldDeclarationNode x = jcd.fields().getFirst();
+			assertEquals("int x = (1+2) * y;", spanned(code, x));
+			assertEquals("(1+2) * y", spanned(code, x.initializer()));
+			final MethodDeclarationNode m = jcd.methods().getFirst();
+			assertEquals("void m(final int q){ a.b(q); return q; }", spanned(code, m));
+			assertEquals("a.b(q);", spanned(code, m.body().get(0)));
+			assertEquals("return q;", spanned(code, m.body().get(1)));
+		}
+		assertEquals(Span.UNKNOWN, new ReturnStatement(constant(1)).span());
+		assertEquals(Span.UNKNOWN, PrimitiveTypes.INT.span());
+	}
+
+	@ParameterizedTest
+	@MethodSource("reparsedEdits")
+	void reparsedSpansMatchTheNewSource(final String code, final TextEdit edit) {
+		final char[] newCode = edit.applyTo(code.toCharArray());
+		final JavaClassDeclaration reparsed = JavaParser.reparse(
+						JavaParser.parseSource(code.toCharArray()), edit, newCode)
+				.declaration();
+		final JavaClassDeclaration parsed = (JavaClassDeclaration) JavaParser.parse(newCode);
+		final String source = new String(newCode);
+		assertEquals(source, spanned(source, reparsed));
+		final List<JavaNode> members = reparsed.body().members();
+		final List<JavaNode> expected = parsed.body().members();
+		assertEquals(expected.size(), members.size());
+		for (int i = 0; i < members.size(); i++) {
+			assertEquals(expected.get(i).span(), members.get(i).span());
+			assertEquals(expected.get(i).toJava(), members.get(i).toJava());
+		}
+	}
 }